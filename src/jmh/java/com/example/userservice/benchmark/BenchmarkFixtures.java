@@ -0,0 +1,106 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.domain.entity.BaseEntity;
+import com.example.userservice.domain.entity.role.AuthorityOrdinalEntity;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.domain.entity.user.Gender;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.domain.entity.user.UserState;
+import com.example.userservice.repository.AuthorityOrdinalRepository;
+import com.example.userservice.repository.PermissionRepository;
+import com.example.userservice.repository.RoleRepository;
+import com.example.userservice.repository.TokenEpochRepository;
+import com.example.userservice.service.AuthorityRegistry;
+import com.example.userservice.service.JwtService;
+import com.example.userservice.service.JwtTokenEngine;
+import com.example.userservice.service.TokenEpochService;
+import com.example.userservice.service.UserSnapshotCache;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Builds the services under benchmark the same way Spring would, without starting a context
+final class BenchmarkFixtures {
+    static final String SECRET_KEY = "753778214125442A472D4B6150645367566B59703373367639792F423F452848567890iuyiu67567886578uyutuio7865467897654678965467uior678545";
+    static final List<String> ROLES = List.of("USER", "ADMIN", "DOCTOR");
+    static final List<String> PERMISSIONS = List.of(
+            "GET", "UPDATE", "DELETE", "SEE_A_PATIENT", "CREATE_SPECIALTY",
+            "ADD_DOCTOR", "FIRE_DOCTOR", "SEE_STATISTICS", "MANAGE_QUEUE", "MANAGE_BOOKING");
+
+    private BenchmarkFixtures() {
+    }
+
+    static UserEntity admin() {
+        List<RoleEntity> roles = new ArrayList<>();
+        for (String role : ROLES) {
+            roles.add(withId(RoleEntity.builder().name(role).permissions(List.of()).build()));
+        }
+        List<PermissionEntity> permissions = new ArrayList<>();
+        for (String permission : PERMISSIONS) {
+            permissions.add(withId(PermissionEntity.builder().permission(permission).build()));
+        }
+        return withId(UserEntity.builder()
+                .email("admin@example.com")
+                .fullName("Benchmark Admin")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6Y3Uv/3m8v1v1tY8lS1K5bK")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .phoneNumber("+998901234567")
+                .gender(Gender.MALE)
+                .state(UserState.ACTIVE)
+                .roles(roles)
+                .permissions(permissions)
+                .employeeOfHospital(UUID.randomUUID())
+                .build());
+    }
+
+    static JwtTokenEngine tokenEngine(SignatureAlgorithm serviceAlgorithm) {
+        return new JwtTokenEngine(SECRET_KEY, "k1", List.of(), serviceAlgorithm);
+    }
+
+    static AuthorityRegistry authorityRegistry() {
+        UserEntity user = admin();
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class);
+        PermissionRepository permissionRepository = Mockito.mock(PermissionRepository.class);
+        Mockito.when(roleRepository.findAll()).thenReturn(user.getRoles());
+        Mockito.when(permissionRepository.findAll()).thenReturn(user.getPermissions());
+        List<AuthorityOrdinalEntity> ordinals = new ArrayList<>();
+        for (String role : ROLES) {
+            ordinals.add(new AuthorityOrdinalEntity(ordinals.size(), "ROLE_" + role));
+        }
+        for (String permission : PERMISSIONS) {
+            ordinals.add(new AuthorityOrdinalEntity(ordinals.size(), permission));
+        }
+        AuthorityOrdinalRepository authorityOrdinalRepository = Mockito.mock(AuthorityOrdinalRepository.class);
+        Mockito.when(authorityOrdinalRepository.findAllByOrderByOrdinal()).thenReturn(ordinals);
+        AuthorityRegistry authorityRegistry = new AuthorityRegistry(roleRepository, permissionRepository, authorityOrdinalRepository);
+        authorityRegistry.reload();
+        return authorityRegistry;
+    }
+
+    static TokenEpochService tokenEpochService() {
+        return new TokenEpochService(Mockito.mock(TokenEpochRepository.class), Mockito.mock(UserSnapshotCache.class));
+    }
+
+    static JwtService jwtService(AuthorityRegistry authorityRegistry, boolean compactAuthorities) {
+        JwtService jwtService = new JwtService(tokenEngine(SignatureAlgorithm.HS256), authorityRegistry, tokenEpochService());
+        ReflectionTestUtils.setField(jwtService, "accessTokenExpiry", 86400000L);
+        ReflectionTestUtils.setField(jwtService, "refreshTokenExpiry", 604800000L);
+        ReflectionTestUtils.setField(jwtService, "serviceTokenExpiry", 600000L);
+        ReflectionTestUtils.setField(jwtService, "compactAuthorities", compactAuthorities);
+        return jwtService;
+    }
+
+    private static <T extends BaseEntity> T withId(T entity) {
+        entity.setId(UUID.randomUUID());
+        entity.setCreatedDate(LocalDateTime.now());
+        entity.setUpdatedDate(LocalDateTime.now());
+        return entity;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.domain.entity.TimeOrderedUuidGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Inserts into a file backed table that keeps growing for the whole trial, keyed by random v4 ids or by
+ * time-ordered v7 ids, so the cost of scattering writes over the primary key index shows up as the table gets bigger.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdInsertBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "time-ordered"})
+    public String ids;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("id-insert-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("users").toAbsolutePath(), "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id uuid primary key, email varchar(255) not null, created_date timestamp)");
+        }
+        insert = connection.prepareStatement("insert into users (id, email, created_date) values (?, ?, current_timestamp)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        } catch (Exception ignored) {
+            // Leftovers in the temp directory do not affect the results
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        boolean timeOrdered = "time-ordered".equals(ids);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            UUID id = timeOrdered ? TimeOrderedUuidGenerator.next() : UUID.randomUUID();
+            insert.setObject(1, id);
+            insert.setString(2, id + "@example.com");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
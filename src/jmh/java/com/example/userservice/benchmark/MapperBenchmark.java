@@ -0,0 +1,106 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.domain.dto.request.DoctorCreateDto;
+import com.example.userservice.domain.dto.request.user.UserDetailsForFront;
+import com.example.userservice.domain.dto.request.user.UserRequestDto;
+import com.example.userservice.domain.dto.request.user.UserUpdateRequest;
+import com.example.userservice.domain.entity.doctor.DoctorInfo;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.mapper.DoctorMapper;
+import com.example.userservice.mapper.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Explicit mappers against the ModelMapper configuration they replaced, run from several threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MapperBenchmark {
+    private final UserMapper userMapper = new UserMapper();
+    private final DoctorMapper doctorMapper = new DoctorMapper();
+    private ModelMapper modelMapper;
+    private UserEntity user;
+    private UserRequestDto userRequestDto;
+    private UserUpdateRequest userUpdateRequest;
+    private DoctorCreateDto doctorCreateDto;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setSkipNullEnabled(true);
+        user = BenchmarkFixtures.admin();
+        userRequestDto = new UserRequestDto("Benchmark User", "user@example.com", "Benchmark#1", null, "+998901234567", null);
+        userUpdateRequest = UserUpdateRequest.builder().fullName("Renamed User").build();
+        doctorCreateDto = new DoctorCreateDto();
+        doctorCreateDto.setEmail("doctor@example.com");
+        doctorCreateDto.setRoomNumber("204");
+        doctorCreateDto.setInfo("General practice");
+    }
+
+    @Benchmark
+    public UserEntity createUserExplicit() {
+        return userMapper.toEntity(userRequestDto);
+    }
+
+    @Benchmark
+    public UserEntity createUserModelMapper() {
+        return modelMapper.map(userRequestDto, UserEntity.class);
+    }
+
+    @Benchmark
+    public UserEntity updateUserExplicit() {
+        userMapper.update(userUpdateRequest, user);
+        return user;
+    }
+
+    @Benchmark
+    public UserEntity updateUserModelMapper() {
+        modelMapper.map(userUpdateRequest, user);
+        return user;
+    }
+
+    @Benchmark
+    public UserDetailsForFront userDetailsExplicit() {
+        return userMapper.toUserDetails(user);
+    }
+
+    @Benchmark
+    public UserDetailsForFront userDetailsModelMapper() {
+        UserDetailsForFront details = modelMapper.map(user, UserDetailsForFront.class);
+        List<String> roles = new ArrayList<>();
+        for (RoleEntity role : user.getRoles()) {
+            roles.add(role.getName());
+        }
+        List<String> permissions = new ArrayList<>();
+        for (PermissionEntity permission : user.getPermissions()) {
+            permissions.add(permission.getPermission());
+        }
+        details.setRoles(roles);
+        details.setPermissions(permissions);
+        return details;
+    }
+
+    @Benchmark
+    public DoctorInfo doctorInfoExplicit() {
+        return doctorMapper.toEntity(doctorCreateDto);
+    }
+
+    @Benchmark
+    public DoctorInfo doctorInfoModelMapper() {
+        return modelMapper.map(doctorCreateDto, DoctorInfo.class);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.service.AuthenticationService;
+import com.example.userservice.service.AuthorityRegistry;
+import com.example.userservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenBenchmark {
+    @Param({"true", "false"})
+    public boolean compactAuthorities;
+
+    private UserEntity user;
+    private JwtService jwtService;
+    private AuthenticationService authenticationService;
+    private MockHttpServletRequest request;
+    private String accessToken;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        AuthorityRegistry authorityRegistry = BenchmarkFixtures.authorityRegistry();
+        user = BenchmarkFixtures.admin();
+        jwtService = BenchmarkFixtures.jwtService(authorityRegistry, compactAuthorities);
+        authenticationService = new AuthenticationService(authorityRegistry);
+        request = new MockHttpServletRequest();
+        accessToken = jwtService.generateAccessToken(user);
+        claims = jwtService.extractToken(accessToken).getBody();
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(user);
+    }
+
+    @Benchmark
+    public Claims extractToken() {
+        return jwtService.extractToken(accessToken).getBody();
+    }
+
+    @Benchmark
+    public Object authenticate() {
+        authenticationService.authenticate(claims, request);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
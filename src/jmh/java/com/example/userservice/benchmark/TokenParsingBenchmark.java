@@ -0,0 +1,80 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.service.JwtTokenEngine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Before and after of the key-ring engine. The legacy methods are what JwtService did on every call before
+ * JwtTokenEngine: hand the string secret to jjwt, which decodes it and builds a fresh parser each time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenParsingBenchmark {
+    private static final long EXPIRY = 86400000L;
+
+    private JwtTokenEngine tokenEngine;
+    private Map<String, Object> authorities;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenEngine = BenchmarkFixtures.tokenEngine(SignatureAlgorithm.HS256);
+        List<String> authorityList = new ArrayList<>();
+        for (String role : BenchmarkFixtures.ROLES) {
+            authorityList.add("ROLE_" + role);
+        }
+        authorityList.addAll(BenchmarkFixtures.PERMISSIONS);
+        authorities = Map.of("authorities", List.copyOf(authorityList));
+        token = engineGenerate();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String legacyGenerate() {
+        return Jwts.builder()
+                .signWith(SignatureAlgorithm.HS512, BenchmarkFixtures.SECRET_KEY)
+                .setSubject("admin@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(new Date().getTime() + EXPIRY))
+                .addClaims(authorities)
+                .compact();
+    }
+
+    @Benchmark
+    public String engineGenerate() {
+        Date now = new Date();
+        return tokenEngine.userTokenBuilder()
+                .setSubject("admin@example.com")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + EXPIRY))
+                .addClaims(authorities)
+                .compact();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Claims legacyParse() {
+        return Jwts.parser().setSigningKey(BenchmarkFixtures.SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims engineParse() {
+        return tokenEngine.parse(token).getBody();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.userservice.benchmark;
+
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.service.VerificationCodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserServiceBenchmark {
+    private UserEntity user;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.admin();
+    }
+
+    @Benchmark
+    public Collection<?> userAuthorities() {
+        return user.getAuthorities();
+    }
+
+    @Benchmark
+    public String generateVerificationCode() {
+        return VerificationCodes.generate();
+    }
+}
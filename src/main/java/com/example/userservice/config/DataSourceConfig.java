@@ -0,0 +1,75 @@
+package com.example.userservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource routingDataSource(
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry,
+            @Value("${database.replicas.urls:}") List<String> replicaUrls,
+            @Value("${database.replicas.read-your-writes-window}") long readYourWritesWindow
+    ) {
+        HikariDataSource primary = pool(dataSourceProperties, dataSourceProperties.getUrl(), "primary", meterRegistry);
+        List<HikariDataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(dataSourceProperties, replicaUrls.get(i), "replica-" + i, meterRegistry);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, Duration.ofMillis(readYourWritesWindow));
+    }
+
+    // Instrumentation is decided once here, so a disabled build pays nothing per statement
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            ReadWriteRoutingDataSource routingDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${database.instrumentation.enabled}") boolean instrumentationEnabled,
+            @Value("${database.instrumentation.slow-query-threshold}") long slowQueryThreshold
+    ) {
+        DataSource target = routingDataSource;
+        if (instrumentationEnabled) {
+            target = ProxyDataSourceBuilder.create(routingDataSource)
+                    .name("user-service")
+                    .listener(new QueryMetricsListener(meterRegistry, slowQueryThreshold))
+                    .build();
+        }
+        return new LazyConnectionDataSourceProxy(target);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "database.instrumentation.enabled", havingValue = "true")
+    public static RepositoryMethodTracker repositoryMethodTracker() {
+        return new RepositoryMethodTracker();
+    }
+
+    // Every pool reports hikaricp.* meters tagged with its own pool name
+    private HikariDataSource pool(DataSourceProperties dataSourceProperties, String url, String poolName, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -51,6 +51,11 @@ public class GlobalExceptionHandler {
             UserBadRequestException e){
         return ResponseEntity.status(400).body(StandardResponse.<String>builder().status(Status.ERROR).message(e.getMessage()).build());
     }
+    @ExceptionHandler(value = {ServiceUnavailableException.class})
+    public ResponseEntity<StandardResponse<String>> serviceUnavailableExceptionHandler(
+            ServiceUnavailableException e){
+        return ResponseEntity.status(503).body(StandardResponse.<String>builder().status(Status.ERROR).message(e.getMessage()).build());
+    }
     @ExceptionHandler(value = {InternalServerErrorException.class})
     public ResponseEntity<StandardResponse<String>> internalServerExceptionHandler(
     ){
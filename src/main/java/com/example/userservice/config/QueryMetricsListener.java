@@ -0,0 +1,74 @@
+package com.example.userservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Records db.query latency per repository method and logs statements slower than the threshold.
+ * The log carries the SQL with its placeholders and the Java types of the bound parameters, never their values.
+ */
+@Slf4j
+public class QueryMetricsListener implements QueryExecutionListener {
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryThreshold;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public QueryMetricsListener(MeterRegistry meterRegistry, long slowQueryThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String repositoryMethod = RepositoryMethodTracker.current();
+        String outcome = execInfo.isSuccess() ? "success" : "error";
+        timers.computeIfAbsent(repositoryMethod + "|" + outcome, key -> Timer.builder("db.query")
+                        .tag("repository", repositoryMethod)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        if (execInfo.getElapsedTime() >= slowQueryThreshold) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow query: {} ms in {}, batch of {}, parameters {}: {}",
+                        execInfo.getElapsedTime(),
+                        repositoryMethod,
+                        Math.max(queryInfo.getParametersList().size(), 1),
+                        parameterShape(queryInfo),
+                        queryInfo.getQuery());
+            }
+        }
+    }
+
+    // Types of the first parameter set; later sets of a batch have the same shape
+    private static String parameterShape(QueryInfo queryInfo) {
+        if (queryInfo.getParametersList().isEmpty()) {
+            return "[]";
+        }
+        List<ParameterSetOperation> operations = queryInfo.getParametersList().get(0);
+        StringJoiner shape = new StringJoiner(", ", "[", "]");
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+            Object value = args.length > 1 ? args[1] : null;
+            boolean isNull = value == null || "setNull".equals(operation.getMethod().getName());
+            shape.add(isNull ? "null" : value.getClass().getSimpleName());
+        }
+        return shape.toString();
+    }
+}
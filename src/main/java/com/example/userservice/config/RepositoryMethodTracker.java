@@ -0,0 +1,40 @@
+package com.example.userservice.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+// Remembers which repository method is running on the current thread, so each statement can be tagged with it
+public class RepositoryMethodTracker implements BeanPostProcessor {
+    public static final String NONE = "none";
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    public static String current() {
+        String method = CURRENT.get();
+        return method == null ? NONE : method;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                // First in the chain, so the flush on commit of the repository's own transaction is still attributed to it
+                proxyFactory.addAdvice(0, (MethodInterceptor) invocation -> {
+                    String previous = CURRENT.get();
+                    CURRENT.set(repository + "." + invocation.getMethod().getName());
+                    try {
+                        return invocation.proceed();
+                    } finally {
+                        if (previous == null) {
+                            CURRENT.remove();
+                        } else {
+                            CURRENT.set(previous);
+                        }
+                    }
+                });
+            }));
+        }
+        return bean;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.userservice.config;
 
+import com.example.userservice.filter.AuthRateLimitFilter;
 import com.example.userservice.filter.JwtFilterToken;
+import com.example.userservice.service.AuthRateLimiter;
 import com.example.userservice.service.AuthenticationService;
-import com.example.userservice.service.JwtService;
+import com.example.userservice.service.TokenEpochService;
+import com.example.userservice.service.VerifiedTokenCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -23,7 +27,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final AuthenticationService authenticationService;
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenEpochService tokenEpochService;
+    private final AuthRateLimiter authRateLimiter;
+    private final ObjectMapper objectMapper;
     private final String[] permitAll = {"/swagger-ui/**", "/v3/api-docs/**", "/user/auth/**"};
 
     @Bean
@@ -37,7 +44,8 @@ public class SecurityConfig {
                             .anyRequest().authenticated();
                 })
                 .sessionManagement((session) -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .addFilterBefore(new JwtFilterToken(authenticationService, jwtService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtFilterToken(authenticationService, verifiedTokenCache, tokenEpochService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new AuthRateLimitFilter(authRateLimiter, objectMapper), JwtFilterToken.class)
                 .build();
     }
     @Bean
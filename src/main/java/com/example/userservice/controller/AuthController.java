@@ -3,10 +3,13 @@ package com.example.userservice.controller;
 import com.example.userservice.domain.dto.request.user.*;
 import com.example.userservice.domain.dto.response.JwtResponse;
 import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.exception.AuthenticationFailedException;
 import com.example.userservice.exception.RequestValidationException;
+import com.example.userservice.service.RefreshTokenService;
 import com.example.userservice.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +22,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AuthController {
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
 
     @PostMapping("/sign-up")
     public StandardResponse<JwtResponse> signUp(
@@ -52,18 +56,30 @@ public class AuthController {
         return userService.sendVerificationCode(principal.getName());
     }
 
+    // Older clients send the refresh token as a bearer token here; it is rotated exactly like POST /refresh
     @GetMapping("/access-token")
     public StandardResponse<JwtResponse> getAccessToken(
-            Principal principal
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
     ) {
-        return userService.getNewAccessToken(principal);
+        return refreshTokenService.refresh(bearerRefreshToken(authorization));
     }
 
     @GetMapping("/refresh-token")
     public StandardResponse<JwtResponse> refreshAccessToken(
-            Principal principal
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization
     ){
-        return userService.getNewAccessToken(principal);
+        return refreshTokenService.refresh(bearerRefreshToken(authorization));
+    }
+    @PostMapping("/refresh")
+    public StandardResponse<JwtResponse> refresh(
+            @Valid @RequestBody RefreshTokenDto refreshTokenDto,
+            BindingResult bindingResult
+    ) throws RequestValidationException {
+        if (bindingResult.hasErrors()){
+            List<ObjectError> allErrors = bindingResult.getAllErrors();
+            throw new RequestValidationException(allErrors);
+        }
+        return refreshTokenService.refresh(refreshTokenDto);
     }
     @GetMapping("/forgot-password")
     public StandardResponse<String> forgottenPassword(
@@ -79,6 +95,15 @@ public class AuthController {
         return userService.verifyPasswordForUpdatePassword(verifyCodeDto);
     }
 
+    private static RefreshTokenDto bearerRefreshToken(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new AuthenticationFailedException("Refresh token is missing");
+        }
+        RefreshTokenDto refreshTokenDto = new RefreshTokenDto();
+        refreshTokenDto.setRefreshToken(authorization.substring(7));
+        return refreshTokenDto;
+    }
+
     @PutMapping("/update-password")
     public StandardResponse<String> updatePassword(
             @RequestBody UpdatePasswordDto updatePasswordDto
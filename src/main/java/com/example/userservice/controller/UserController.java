@@ -7,24 +7,36 @@ import com.example.userservice.domain.dto.request.doctor.DoctorDetailsForBooking
 import com.example.userservice.domain.dto.request.doctor.DoctorDetailsForFront;
 import com.example.userservice.domain.dto.request.doctor.DoctorResponseForFront;
 import com.example.userservice.domain.dto.request.doctor.DoctorsWithSpecialtiesForFront;
+import com.example.userservice.domain.dto.request.doctor.WorkingDays;
 import com.example.userservice.domain.dto.request.user.*;
 import com.example.userservice.domain.dto.response.StandardResponse;
-import com.example.userservice.domain.entity.doctor.DoctorSpecialty;
+import com.example.userservice.domain.dto.response.UserImportResult;
 import com.example.userservice.domain.entity.doctor.DoctorStatus;
 import com.example.userservice.domain.entity.user.UserEntity;
 import com.example.userservice.exception.RequestValidationException;
 import com.example.userservice.service.DoctorService;
+import com.example.userservice.service.ResourceVersion;
+import com.example.userservice.service.SpecialtyCatalog;
+import com.example.userservice.service.UserImportService;
 import com.example.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
@@ -33,6 +45,7 @@ public class UserController {
 
     private final UserService userService;
     private final DoctorService doctorService;
+    private final UserImportService userImportService;
     @PostMapping("/add-doctor")
     @PreAuthorize(value = "hasRole('ADMIN')")
     public StandardResponse<UserEntity> addDoctor(
@@ -59,9 +72,10 @@ public class UserController {
     @GetMapping("/get-all-user")
     public StandardResponse<List<UserEntity>> getAll(
             @RequestParam(required = false, defaultValue = "0") int page,
-            @RequestParam(required = false, defaultValue = "10") int size
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor
     ) {
-        return userService.getAll(page, size);
+        return userService.getAll(page, size, cursor);
     }
 
     @PostMapping("/send-id")
@@ -99,19 +113,21 @@ public class UserController {
     }
 
     @GetMapping("/get-me")
-    public StandardResponse<UserDetailsForFront> getMe(
-            Principal principal
+    public ResponseEntity<StandardResponse<UserDetailsForFront>> getMe(
+            Principal principal,
+            WebRequest request
     ){
-        return userService.getMeByToken(principal.getName());
+        return conditional(userService.getMeVersion(principal.getName()), request, () -> userService.getMeByToken(principal.getName()));
     }
 
     @GetMapping("/get-all-doctors-from-hospital")
     public StandardResponse<DoctorsWithSpecialtiesForFront> getAll(
             @RequestParam(required = false,defaultValue = "0") int page,
             @RequestParam(required = false,defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
             @RequestParam UUID hospitalId
     ){
-        return doctorService.getAllDoctor(page,size, hospitalId);
+        return doctorService.getAllDoctor(page,size, cursor, hospitalId);
     }
     @GetMapping("/get-doctors-by-specialty")
     public StandardResponse<List<DoctorDetailsForFront>> getDoctors(
@@ -138,21 +154,40 @@ public class UserController {
         return doctorService.deleteDoctorFromHospital(email);
     }
 
+    @PutMapping("/block-user")
+    @PreAuthorize(value = "hasRole('ADMIN')")
+    public StandardResponse<String> blockUser(
+            @RequestParam String email
+    ){
+        return userService.blockUser(email);
+    }
+
+    @PostMapping(value = "/import-users", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize(value = "hasRole('ADMIN')")
+    public StandardResponse<UserImportResult> importUsers(
+            HttpServletRequest request
+    ) throws IOException {
+        return userImportService.importUsers(request.getInputStream(), MediaType.parseMediaType(request.getContentType()));
+    }
+
     @GetMapping("/get-doctor-by-id")
-    public StandardResponse<DoctorResponseForFront> getDoctorById(
-            @RequestParam UUID doctorId
+    public ResponseEntity<StandardResponse<DoctorResponseForFront>> getDoctorById(
+            @RequestParam UUID doctorId,
+            WebRequest request
     ){
-        return doctorService.getDoctorForFront(doctorId);
+        List<WorkingDays> workingDays = doctorService.getWorkingDaysOfDoctor(doctorId);
+        return conditional(doctorService.getDoctorVersion(doctorId, workingDays), request, () -> doctorService.getDoctorForFront(doctorId, workingDays));
     }
     @GetMapping("/get-all-specialties")
-    public StandardResponse<List<DoctorSpecialty>> getAllSpecialties(){
-        return doctorService.getAllSpecialties();
+    public ResponseEntity<byte[]> getAllSpecialties(WebRequest request){
+        return renderedJson(doctorService.getAllSpecialties(), request);
     }
     @GetMapping("/get-specialty-by-id")
-    public StandardResponse<DoctorSpecialty> getSpecialty(
-            @RequestParam UUID specialtyId
+    public ResponseEntity<byte[]> getSpecialty(
+            @RequestParam UUID specialtyId,
+            WebRequest request
     ){
-        return doctorService.getSpecialty(specialtyId);
+        return renderedJson(doctorService.getSpecialty(specialtyId), request);
     }
     @PostMapping("/verify-code-for-changing-email")
     public StandardResponse<String> verifyCodeForChangingEmail(
@@ -175,4 +210,25 @@ public class UserController {
     ){
         return userService.sendVerificationCodeToChangeEmail(email, principal);
     }
+
+    // checkNotModified answers If-None-Match with a 304 and no body; otherwise it has already set the ETag header
+    private ResponseEntity<byte[]> renderedJson(SpecialtyCatalog.RenderedJson rendered, WebRequest request) {
+        if (request.checkNotModified(rendered.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.body());
+    }
+
+    // The version comes from a lookup that is far cheaper than the body, which is only built on a miss
+    private <T> ResponseEntity<T> conditional(Optional<ResourceVersion> version, WebRequest request, Supplier<T> body) {
+        if (version.isPresent() && request.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(body.get());
+    }
 }
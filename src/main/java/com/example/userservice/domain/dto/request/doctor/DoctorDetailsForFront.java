@@ -1,11 +1,13 @@
 package com.example.userservice.domain.dto.request.doctor;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
 import java.util.UUID;
 @Data
 @Builder
+@AllArgsConstructor
 public class DoctorDetailsForFront {
     private UUID id;
     private String fullName;
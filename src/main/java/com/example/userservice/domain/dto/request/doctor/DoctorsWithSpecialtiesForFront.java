@@ -10,4 +10,5 @@ import java.util.List;
 public class DoctorsWithSpecialtiesForFront {
     private List<DoctorDetailsForFront> doctors;
     private List<String> specialties;
+    private List<SpecialtyWithDoctorCount> specialtyCounts;
 }
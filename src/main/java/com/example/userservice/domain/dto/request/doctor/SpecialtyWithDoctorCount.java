@@ -0,0 +1,13 @@
+package com.example.userservice.domain.dto.request.doctor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class SpecialtyWithDoctorCount {
+    private String specialty;
+    private Long activeDoctors;
+}
@@ -0,0 +1,10 @@
+package com.example.userservice.domain.dto.request.user;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenDto {
+    @NotBlank(message = "Refresh token must not be blank")
+    private String refreshToken;
+}
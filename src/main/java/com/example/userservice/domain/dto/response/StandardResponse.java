@@ -1,5 +1,6 @@
 package com.example.userservice.domain.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,4 +10,6 @@ public class StandardResponse<T> {
     private Status status;
     private String message;
     private T data;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 }
@@ -0,0 +1,14 @@
+package com.example.userservice.domain.dto.response;
+
+import lombok.*;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserImportError {
+    private int line;
+    private String email;
+    private String message;
+}
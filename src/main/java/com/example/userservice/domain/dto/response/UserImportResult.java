@@ -0,0 +1,17 @@
+package com.example.userservice.domain.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class UserImportResult {
+    private int processed;
+    private int imported;
+    private int failed;
+    private List<UserImportError> errors;
+}
@@ -0,0 +1,28 @@
+package com.example.userservice.domain.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * UUIDv7 ids: a 48 bit unix millisecond timestamp followed by random bits. New rows land at the right
+ * edge of the primary key index instead of on random pages. Randomness comes from ThreadLocalRandom,
+ * so concurrent inserts never share state.
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+    public static final String NAME = "time-ordered-uuid";
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.userservice.domain.entity.role;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+
+// Fixed bit position of a role or permission in the compact token authorities, rows are only ever appended
+@Entity(name = "authority_ordinal")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class AuthorityOrdinalEntity {
+    @Id
+    private Integer ordinal;
+    @Column(unique = true, nullable = false)
+    private String authority;
+}
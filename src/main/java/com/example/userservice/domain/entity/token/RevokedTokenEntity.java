@@ -0,0 +1,21 @@
+package com.example.userservice.domain.entity.token;
+
+import com.example.userservice.domain.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "revoked_token")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RevokedTokenEntity extends BaseEntity {
+    @Column(unique = true, nullable = false)
+    private String tokenId;
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
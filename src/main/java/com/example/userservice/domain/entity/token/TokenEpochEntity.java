@@ -0,0 +1,18 @@
+package com.example.userservice.domain.entity.token;
+
+import com.example.userservice.domain.entity.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import lombok.*;
+
+@Entity(name = "token_epoch")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class TokenEpochEntity extends BaseEntity {
+    @Column(unique = true, nullable = false)
+    private String email;
+    private int epoch;
+}
@@ -0,0 +1,13 @@
+package com.example.userservice.domain.projection;
+
+import com.example.userservice.domain.entity.doctor.DoctorStatus;
+
+import java.util.UUID;
+
+public interface DoctorDirectoryRow {
+    UUID getId();
+    String getFullName();
+    String getSpecialty();
+    DoctorStatus getStatus();
+    UUID getHospitalId();
+}
@@ -0,0 +1,9 @@
+package com.example.userservice.domain.projection;
+
+import java.time.LocalDateTime;
+
+public interface DoctorVersionRow {
+    LocalDateTime getUserVersion();
+    LocalDateTime getDoctorInfoVersion();
+    LocalDateTime getSpecialtyVersion();
+}
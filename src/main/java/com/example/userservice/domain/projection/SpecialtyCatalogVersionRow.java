@@ -0,0 +1,8 @@
+package com.example.userservice.domain.projection;
+
+import java.time.LocalDateTime;
+
+public interface SpecialtyCatalogVersionRow {
+    Long getSpecialties();
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,68 @@
+package com.example.userservice.domain.projection;
+
+import com.example.userservice.domain.entity.user.Gender;
+import com.example.userservice.domain.entity.user.UserState;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+// Everything sign-in needs about a user, folded from the role x permission rows of a single query
+public record UserCredentials(
+        UUID id,
+        String email,
+        String password,
+        UserState state,
+        UUID employeeOfHospital,
+        String fullName,
+        String phoneNumber,
+        LocalDate dateOfBirth,
+        Gender gender,
+        List<String> roles,
+        List<String> permissions,
+        LocalDateTime updatedDate
+) {
+    public static Optional<UserCredentials> of(List<UserCredentialsRow> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<String> roles = new LinkedHashSet<>();
+        Set<String> permissions = new LinkedHashSet<>();
+        for (UserCredentialsRow row : rows) {
+            if (row.getRole() != null) {
+                roles.add(row.getRole());
+            }
+            if (row.getPermission() != null) {
+                permissions.add(row.getPermission());
+            }
+        }
+        UserCredentialsRow user = rows.get(0);
+        return Optional.of(new UserCredentials(
+                user.getId(),
+                user.getEmail(),
+                user.getPassword(),
+                user.getState(),
+                user.getEmployeeOfHospital(),
+                user.getFullName(),
+                user.getPhoneNumber(),
+                user.getDateOfBirth(),
+                user.getGender(),
+                List.copyOf(roles),
+                List.copyOf(permissions),
+                user.getUpdatedDate()));
+    }
+
+    public List<String> authorities() {
+        List<String> authorities = new ArrayList<>(roles.size() + permissions.size());
+        for (String role : roles) {
+            authorities.add("ROLE_" + role);
+        }
+        authorities.addAll(permissions);
+        return authorities;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.userservice.domain.projection;
+
+import com.example.userservice.domain.entity.user.Gender;
+import com.example.userservice.domain.entity.user.UserState;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface UserCredentialsRow {
+    UUID getId();
+    String getEmail();
+    String getPassword();
+    UserState getState();
+    UUID getEmployeeOfHospital();
+    String getFullName();
+    String getPhoneNumber();
+    LocalDate getDateOfBirth();
+    Gender getGender();
+    String getRole();
+    String getPermission();
+    LocalDateTime getUpdatedDate();
+}
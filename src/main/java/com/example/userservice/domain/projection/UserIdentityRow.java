@@ -0,0 +1,9 @@
+package com.example.userservice.domain.projection;
+
+import java.util.UUID;
+
+public interface UserIdentityRow {
+    UUID getId();
+    String getEmail();
+    String getPhoneNumber();
+}
@@ -0,0 +1,119 @@
+package com.example.userservice.filter;
+
+import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.domain.dto.response.Status;
+import com.example.userservice.service.AuthRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+@AllArgsConstructor
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+    private static final String SIGN_IN = "/user/auth/sign-in";
+    private static final String FORGOT_PASSWORD = "/user/auth/forgot-password";
+    private static final String CHECK_PASSWORD = "/user/check-password";
+    private static final Set<String> LIMITED_PATHS = Set.of(SIGN_IN, FORGOT_PASSWORD, CHECK_PASSWORD);
+    // A sign-in body is an email and a password, anything this large is not a real attempt
+    private static final int MAX_SIGN_IN_BODY = 8 * 1024;
+
+    private AuthRateLimiter authRateLimiter;
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        long retryAfter = authRateLimiter.checkAddress(clientAddress(request));
+        if (retryAfter > 0) {
+            reject(response, retryAfter);
+            return;
+        }
+        HttpServletRequest forwardedRequest = request;
+        String email = null;
+        switch (request.getServletPath()) {
+            case SIGN_IN -> {
+                CachedBodyHttpServletRequest cachedRequest;
+                try {
+                    cachedRequest = new CachedBodyHttpServletRequest(request, MAX_SIGN_IN_BODY);
+                } catch (CachedBodyHttpServletRequest.BodyTooLargeException e) {
+                    writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+                    return;
+                }
+                forwardedRequest = cachedRequest;
+                email = readEmail(cachedRequest.getBody());
+            }
+            case FORGOT_PASSWORD -> email = request.getParameter("email");
+            case CHECK_PASSWORD -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                email = authentication == null ? null : authentication.getName();
+            }
+            default -> {
+            }
+        }
+        if (email != null) {
+            retryAfter = authRateLimiter.checkEmail(email);
+            if (retryAfter > 0) {
+                reject(response, retryAfter);
+                return;
+            }
+        }
+        filterChain.doFilter(forwardedRequest, response);
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email == null || !email.isTextual() ? null : email.asText();
+        } catch (IOException e) {
+            // Malformed bodies are left for the controller to reject
+            return null;
+        }
+    }
+
+    // Requests arrive through the gateway, which appends the address it received the request from.
+    // Earlier hops are whatever the client chose to send, so only the last one can be trusted
+    private String clientAddress(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String lastHop = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long retryAfter) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many attempts, please try again in " + retryAfter + " seconds");
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), StandardResponse.<String>builder()
+                .status(Status.ERROR)
+                .message(message)
+                .build());
+    }
+}
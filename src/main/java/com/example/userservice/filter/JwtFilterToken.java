@@ -1,22 +1,35 @@
 package com.example.userservice.filter;
 
 import com.example.userservice.service.AuthenticationService;
-import com.example.userservice.service.JwtService;
+import com.example.userservice.service.TokenEpochService;
+import com.example.userservice.service.VerifiedTokenCache;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
 @AllArgsConstructor
 public class JwtFilterToken extends OncePerRequestFilter {
+    // Legacy refresh endpoints take the refresh token as a bearer token and hand it to RefreshTokenService themselves
+    private static final Set<String> LEGACY_REFRESH_PATHS = Set.of("/user/auth/access-token", "/user/auth/refresh-token");
+
     private AuthenticationService authenticationService;
-    private JwtService jwtService;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenEpochService tokenEpochService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return LEGACY_REFRESH_PATHS.contains(request.getServletPath());
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -31,9 +44,24 @@ public class JwtFilterToken extends OncePerRequestFilter {
         }
         token = token.substring(7);
 
-        Jws<Claims> claimsJws = jwtService.extractToken(token);
-
-        authenticationService.authenticate(claimsJws.getBody(), request);
+        // Filter exceptions never reach GlobalExceptionHandler, so an unreadable token is answered here
+        try {
+            Claims claims = verifiedTokenCache.getVerifiedClaims(token);
+            // Refresh tokens are only good for the refresh endpoint, which reads them from the body
+            if (authenticationService.isRefreshToken(claims)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Refresh token cannot be used as a bearer token");
+                return;
+            }
+            if (!tokenEpochService.isCurrent(claims)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been revoked");
+                return;
+            }
+            authenticationService.authenticate(claims, request);
+        } catch (JwtException e) {
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, e.getMessage());
+            return;
+        }
         filterChain.doFilter(request, response);
     }
 }
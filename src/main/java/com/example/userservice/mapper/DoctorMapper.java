@@ -0,0 +1,27 @@
+package com.example.userservice.mapper;
+
+import com.example.userservice.domain.dto.request.DoctorCreateDto;
+import com.example.userservice.domain.dto.request.doctor.DoctorSpecialtyDto;
+import com.example.userservice.domain.entity.doctor.DoctorInfo;
+import com.example.userservice.domain.entity.doctor.DoctorSpecialty;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DoctorMapper {
+
+    // The specialty is resolved by name and the status is set by the service
+    public DoctorInfo toEntity(DoctorCreateDto doctorCreateDto) {
+        return DoctorInfo.builder()
+                .roomNumber(doctorCreateDto.getRoomNumber())
+                .info(doctorCreateDto.getInfo())
+                .build();
+    }
+
+    public DoctorSpecialty toEntity(DoctorSpecialtyDto doctorSpecialtyDto) {
+        return DoctorSpecialty.builder()
+                .name(doctorSpecialtyDto.getName())
+                .description(doctorSpecialtyDto.getDescription())
+                .diseaseTreatment(doctorSpecialtyDto.getDiseaseTreatment())
+                .build();
+    }
+}
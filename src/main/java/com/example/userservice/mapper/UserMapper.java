@@ -0,0 +1,70 @@
+package com.example.userservice.mapper;
+
+import com.example.userservice.domain.dto.request.user.UserDetailsForFront;
+import com.example.userservice.domain.dto.request.user.UserRequestDto;
+import com.example.userservice.domain.dto.request.user.UserUpdateRequest;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.domain.projection.UserCredentials;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Password, date of birth, gender, roles and state are filled in by the service after validation
+@Component
+public class UserMapper {
+
+    public UserEntity toEntity(UserRequestDto userRequestDto) {
+        return UserEntity.builder()
+                .fullName(userRequestDto.getFullName())
+                .email(userRequestDto.getEmail())
+                .phoneNumber(userRequestDto.getPhoneNumber())
+                .build();
+    }
+
+    // Only fields present in the request are copied, so a partial update keeps the rest of the profile
+    public void update(UserUpdateRequest update, UserEntity userEntity) {
+        if (update.getFullName() != null) {
+            userEntity.setFullName(update.getFullName());
+        }
+        if (update.getPhoneNumber() != null) {
+            userEntity.setPhoneNumber(update.getPhoneNumber());
+        }
+    }
+
+    public UserDetailsForFront toUserDetails(UserEntity userEntity) {
+        List<String> roles = new ArrayList<>(userEntity.getRoles().size());
+        for (RoleEntity role : userEntity.getRoles()) {
+            roles.add(role.getName());
+        }
+        List<String> permissions = new ArrayList<>(userEntity.getPermissions().size());
+        for (PermissionEntity permission : userEntity.getPermissions()) {
+            permissions.add(permission.getPermission());
+        }
+        return new UserDetailsForFront(
+                userEntity.getId(),
+                userEntity.getFullName(),
+                userEntity.getEmail(),
+                userEntity.getState(),
+                userEntity.getPhoneNumber(),
+                userEntity.getDateOfBirth(),
+                userEntity.getGender(),
+                roles,
+                permissions);
+    }
+
+    public UserDetailsForFront toUserDetails(UserCredentials user) {
+        return new UserDetailsForFront(
+                user.id(),
+                user.fullName(),
+                user.email(),
+                user.state(),
+                user.phoneNumber(),
+                user.dateOfBirth(),
+                user.gender(),
+                user.roles(),
+                user.permissions());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.domain.entity.role.AuthorityOrdinalEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AuthorityOrdinalRepository extends JpaRepository<AuthorityOrdinalEntity, Integer> {
+    List<AuthorityOrdinalEntity> findAllByOrderByOrdinal();
+    boolean existsByAuthority(String authority);
+    @Query(value = "select coalesce(max(a.ordinal) + 1, 0) from authority_ordinal a")
+    int nextOrdinal();
+    // A plain insert, so a concurrent append of the same ordinal or authority fails instead of being merged
+    @Modifying
+    @Transactional
+    @Query(value = "insert into authority_ordinal (ordinal, authority) values (?1, ?2)", nativeQuery = true)
+    int append(int ordinal, String authority);
+}
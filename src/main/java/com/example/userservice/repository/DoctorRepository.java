@@ -8,12 +8,13 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public interface DoctorRepository extends JpaRepository<DoctorInfo, UUID> {
     @Modifying
     @Transactional
-    @Query("update doctors_info d set d.status = :status where d.id in (select u.doctorInfo.id from users u where u.email = :email)")
-    void update(@Param("status") DoctorStatus status, @Param("email") String email);
+    @Query("update doctors_info d set d.status = :status, d.updatedDate = :updatedDate where d.id in (select u.doctorInfo.id from users u where u.email = :email)")
+    void update(@Param("status") DoctorStatus status, @Param("email") String email, @Param("updatedDate") LocalDateTime updatedDate);
 
 }
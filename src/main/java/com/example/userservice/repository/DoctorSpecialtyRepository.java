@@ -1,7 +1,9 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.domain.entity.doctor.DoctorSpecialty;
+import com.example.userservice.domain.projection.SpecialtyCatalogVersionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +14,6 @@ import java.util.UUID;
 public interface DoctorSpecialtyRepository extends JpaRepository<DoctorSpecialty, UUID> {
     Optional<DoctorSpecialty> findDoctorSpecialtyByName(String name);
     List<DoctorSpecialty> findAll();
+    @Query(value = "select count(s) as specialties, max(s.updatedDate) as lastUpdated from doctor_specialty s")
+    SpecialtyCatalogVersionRow getCatalogVersion();
 }
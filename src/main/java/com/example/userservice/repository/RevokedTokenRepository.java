@@ -0,0 +1,19 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.domain.entity.token.RevokedTokenEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, UUID> {
+    @Modifying
+    @Transactional
+    @Query(value = "delete from revoked_token r where r.expiresAt <= ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.domain.entity.token.TokenEpochEntity;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TokenEpochRepository extends JpaRepository<TokenEpochEntity, UUID> {
+    Optional<TokenEpochEntity> findByEmail(String email);
+    List<TokenEpochEntity> findAllByUpdatedDateAfter(LocalDateTime since);
+    @Modifying
+    @Transactional
+    @Query(value = "update token_epoch t set t.epoch = t.epoch + 1, t.updatedDate = ?2 where t.email = ?1")
+    int increment(String email, LocalDateTime now);
+}
@@ -2,12 +2,20 @@ package com.example.userservice.repository;
 
 import com.example.userservice.domain.entity.user.UserEntity;
 
-import org.springframework.data.domain.Page;
+import com.example.userservice.domain.dto.request.doctor.SpecialtyWithDoctorCount;
+import com.example.userservice.domain.projection.DoctorDirectoryRow;
+import com.example.userservice.domain.projection.DoctorVersionRow;
+import com.example.userservice.domain.projection.UserCredentialsRow;
+import com.example.userservice.domain.projection.UserIdentityRow;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,9 +23,50 @@ import java.util.UUID;
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     Optional<UserEntity> findByEmail(String email);
+    @Query(value = "select count(u) > 0 from users u where lower(u.email) = lower(?1)")
+    boolean emailExists(String email);
+    @Query(value = "select u.id as id, u.email as email, u.password as password, u.state as state, " +
+            "u.employeeOfHospital as employeeOfHospital, u.fullName as fullName, u.phoneNumber as phoneNumber, " +
+            "u.dateOfBirth as dateOfBirth, u.gender as gender, r.name as role, p.permission as permission, " +
+            "coalesce(u.updatedDate, u.createdDate) as updatedDate " +
+            "from users u left join u.roles r left join u.permissions p where u.email = ?1")
+    List<UserCredentialsRow> findCredentialsByEmail(String email);
+    @Query(value = "select u.email from users u where u.id = ?1")
+    Optional<String> findEmailById(UUID id);
+    @Modifying
+    @Transactional
+    @Query(value = "update users u set u.password = ?2, u.updatedDate = ?3 where u.id = ?1")
+    void updatePassword(UUID id, String password, LocalDateTime updatedDate);
     Optional<UserEntity> findUserEntityByPhoneNumber(String phoneNumber);
-    @Query(value = "select u from users u join u.roles r where r.name = 'DOCTOR' and u.employeeOfHospital = ?1")
-    Page<UserEntity> getAllDoctorsFromHospital(UUID hospitalId, Pageable pageable);
+    @Query(value = "select count(u) > 0 from users u where u.phoneNumber = ?1")
+    boolean phoneNumberExists(String phoneNumber);
+    @Query(value = "select u.id as id, u.email as email, u.phoneNumber as phoneNumber from users u order by u.id")
+    List<UserIdentityRow> findIdentities(Pageable pageable);
+    @Query(value = "select u.id as id, u.email as email, u.phoneNumber as phoneNumber from users u where u.id > ?1 order by u.id")
+    List<UserIdentityRow> findIdentitiesAfter(UUID id, Pageable pageable);
+    @Query(value = "select u.id as id, u.email as email, u.phoneNumber as phoneNumber from users u where u.updatedDate >= ?1")
+    List<UserIdentityRow> findIdentitiesUpdatedSince(LocalDateTime since);
+    // Expects lower-cased emails and returns them lower-cased, matching the case-insensitive sign-up check
+    @Query(value = "select lower(u.email) from users u where lower(u.email) in ?1")
+    List<String> findExistingEmails(Collection<String> emails);
+    @Query(value = "select u.phoneNumber from users u where u.phoneNumber in ?1")
+    List<String> findExistingPhoneNumbers(Collection<String> phoneNumbers);
+    @Query(value = "select u from users u order by u.createdDate, u.id")
+    List<UserEntity> getUsers(Pageable pageable);
+    @Query(value = "select u from users u where (u.createdDate, u.id) > (?1, ?2) order by u.createdDate, u.id")
+    List<UserEntity> getUsersAfter(LocalDateTime createdDate, UUID id, Pageable pageable);
+    @Query(value = "select u from users u where u.createdDate is null order by u.id")
+    List<UserEntity> getUndatedUsers(Pageable pageable);
+    @Query(value = "select u from users u where u.createdDate is null and u.id > ?1 order by u.id")
+    List<UserEntity> getUndatedUsersAfter(UUID id, Pageable pageable);
+    @Query(value = "select u.id as id, u.fullName as fullName, s.name as specialty, d.status as status, u.employeeOfHospital as hospitalId " +
+            "from users u join u.roles r left join u.doctorInfo d left join d.doctorSpecialty s " +
+            "where r.name = 'DOCTOR' and u.employeeOfHospital = ?1")
+    List<DoctorDirectoryRow> getDoctorDirectory(UUID hospitalId);
+    @Query(value = "select u.id as id, u.fullName as fullName, s.name as specialty, d.status as status, u.employeeOfHospital as hospitalId " +
+            "from users u join u.roles r left join u.doctorInfo d left join d.doctorSpecialty s " +
+            "where r.name = 'DOCTOR' and u.id = ?1 and u.employeeOfHospital is not null")
+    Optional<DoctorDirectoryRow> getDoctorDirectoryRow(UUID id);
     @Query(value = "select u from users u join u.roles r where r.name = 'DOCTOR' and u.email = ?1")
     Optional<UserEntity> getDoctorByEmail(String email);
 //    @Query(value = "select u from users u join u.roles r where r.name = 'DOCTOR' and u.id = ?1")
@@ -28,10 +77,15 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
 
     @Query(value = "select u from users u join u.roles r where r.name = 'USER' and u.id = ?1")
     Optional<UserEntity> getUserById(UUID id);
-    @Query(value = "select u.doctorInfo.doctorSpecialty.name from users u where u.employeeOfHospital = ?1")
-    List<String> getAllSpecialtiesFromHospital(UUID hospitalId);
-    @Query(value = "select u from users u where u.employeeOfHospital = ?1 and u.doctorInfo.doctorSpecialty.name = ?2")
-    List<UserEntity> getAllDoctorsBySpecialty(UUID hospitalId, String specialty);
+    @Query(value = "select coalesce(u.updatedDate, u.createdDate) as userVersion, coalesce(d.updatedDate, d.createdDate) as doctorInfoVersion, " +
+            "coalesce(s.updatedDate, s.createdDate) as specialtyVersion " +
+            "from users u join u.doctorInfo d join d.doctorSpecialty s where u.id = ?1")
+    Optional<DoctorVersionRow> getDoctorVersion(UUID id);
+    @Query(value = "select new com.example.userservice.domain.dto.request.doctor.SpecialtyWithDoctorCount(s.name, " +
+            "sum(case when d.status = com.example.userservice.domain.entity.doctor.DoctorStatus.ACTIVE then 1L else 0L end)) " +
+            "from users u join u.roles r join u.doctorInfo d join d.doctorSpecialty s " +
+            "where r.name = 'DOCTOR' and u.employeeOfHospital = ?1 group by s.name order by s.name")
+    List<SpecialtyWithDoctorCount> getSpecialtyCountsFromHospital(UUID hospitalId);
 
 
 }
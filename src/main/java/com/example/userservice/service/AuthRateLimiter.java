@@ -0,0 +1,64 @@
+package com.example.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Throttles credential endpoints per email and per client address before any bcrypt or mail work happens
+@Service
+public class AuthRateLimiter {
+    private final MeteredLimiter emailLimiter;
+    private final MeteredLimiter addressLimiter;
+
+    public AuthRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${security.rate-limit.email.capacity}") int emailCapacity,
+            @Value("${security.rate-limit.email.refill-per-minute}") int emailRefill,
+            @Value("${security.rate-limit.address.capacity}") int addressCapacity,
+            @Value("${security.rate-limit.address.refill-per-minute}") int addressRefill,
+            @Value("${security.rate-limit.stripes}") int stripes,
+            @Value("${security.rate-limit.max-keys}") long maxKeys,
+            @Value("${security.rate-limit.idle-timeout}") long idleTimeout
+    ) {
+        Duration idle = Duration.ofMillis(idleTimeout);
+        this.emailLimiter = MeteredLimiter.of(meterRegistry, "email",
+                new RateLimiter(emailCapacity, emailRefill, stripes, maxKeys, idle));
+        this.addressLimiter = MeteredLimiter.of(meterRegistry, "address",
+                new RateLimiter(addressCapacity, addressRefill, stripes, maxKeys, idle));
+    }
+
+    // Both return the seconds a client has to wait, or 0 when the attempt is allowed
+    public long checkEmail(String email) {
+        return emailLimiter.check(email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public long checkAddress(String address) {
+        return addressLimiter.check(address);
+    }
+
+    private record MeteredLimiter(RateLimiter limiter, Counter allowed, Counter rejected) {
+        static MeteredLimiter of(MeterRegistry meterRegistry, String keyType, RateLimiter limiter) {
+            meterRegistry.gauge("auth.rate-limit.buckets", Tags.of("key", keyType), limiter, RateLimiter::size);
+            return new MeteredLimiter(
+                    limiter,
+                    meterRegistry.counter("auth.rate-limit.requests", "key", keyType, "result", "allowed"),
+                    meterRegistry.counter("auth.rate-limit.requests", "key", keyType, "result", "rejected"));
+        }
+
+        long check(String key) {
+            long waitNanos = limiter.tryAcquire(key);
+            if (waitNanos == 0) {
+                allowed.increment();
+                return 0;
+            }
+            rejected.increment();
+            return TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1;
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.userservice.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Service;
@@ -11,16 +13,21 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
+@RequiredArgsConstructor
 public class AuthenticationService {
+    private final AuthorityRegistry authorityRegistry;
+
     public void authenticate(Claims claims, HttpServletRequest request){
-        List<String> authorities = (List<String>)claims.get("authorities");
+        if (isRefreshToken(claims)) {
+            throw new JwtException("Refresh token cannot be used as a bearer token");
+        }
         String email = claims.getSubject();
 
         UsernamePasswordAuthenticationToken authenticationToken =
                 new UsernamePasswordAuthenticationToken(
                         email,
                         null,
-                        getAuthorities(authorities)
+                        getAuthorities(claims)
                 );
         authenticationToken.setDetails(
                 new WebAuthenticationDetailsSource().buildDetails(request)
@@ -28,9 +35,20 @@ public class AuthenticationService {
         SecurityContextHolder.getContext().setAuthentication(authenticationToken);
     }
 
-    private List<SimpleGrantedAuthority> getAuthorities(List<String> authorities){
-        return authorities.stream()
-                .map(SimpleGrantedAuthority::new)
-                .toList();
+    public boolean isRefreshToken(Claims claims) {
+        return JwtService.REFRESH_TOKEN_TYPE.equals(claims.get(JwtService.TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    private List<GrantedAuthority> getAuthorities(Claims claims){
+        String bits = claims.get(AuthorityRegistry.BITS_CLAIM, String.class);
+        if (bits != null) {
+            return authorityRegistry.decode(claims.get(AuthorityRegistry.VERSION_CLAIM, Integer.class), bits);
+        }
+        // Tokens minted before the compact encoding still carry the plain string list
+        List<String> authorities = (List<String>) claims.get("authorities");
+        if (authorities == null) {
+            throw new JwtException("Token carries no authorities");
+        }
+        return authorityRegistry.intern(authorities);
     }
 }
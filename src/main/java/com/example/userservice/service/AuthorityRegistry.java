@@ -0,0 +1,209 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.entity.role.AuthorityOrdinalEntity;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.repository.AuthorityOrdinalRepository;
+import com.example.userservice.repository.PermissionRepository;
+import com.example.userservice.repository.RoleRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Dictionary of every role and permission, ordered by the ordinal persisted in authority_ordinal.
+ * Ordinals are only ever appended, a role or permission keeps its bit position for good.
+ * Access tokens carry a bitset over this dictionary plus the dictionary version the bitset was built against.
+ * Every prefix of the dictionary keeps its own version, so tokens minted before a role or permission
+ * was added still decode after the dictionary grows.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuthorityRegistry {
+    public static final String VERSION_CLAIM = "av";
+    public static final String BITS_CLAIM = "ab";
+    private static final long MIN_RELOAD_INTERVAL = 10_000;
+    private static final int MAX_APPEND_ATTEMPTS = 5;
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final AuthorityOrdinalRepository authorityOrdinalRepository;
+    private final Map<String, GrantedAuthority> interned = new ConcurrentHashMap<>();
+    private final Cache<EncodedAuthorities, List<GrantedAuthority>> decoded = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+    private volatile AuthorityDictionary dictionary = AuthorityDictionary.EMPTY;
+    private volatile long lastReload;
+
+    @PostConstruct
+    public synchronized void reload() {
+        List<AuthorityOrdinalEntity> ordinals = authorityOrdinalRepository.findAllByOrderByOrdinal();
+        Set<String> known = new HashSet<>();
+        for (AuthorityOrdinalEntity ordinal : ordinals) {
+            known.add(ordinal.getAuthority());
+        }
+        boolean appended = false;
+        for (String authority : currentAuthorities()) {
+            if (!known.contains(authority)) {
+                append(authority);
+                appended = true;
+            }
+        }
+        if (appended) {
+            ordinals = authorityOrdinalRepository.findAllByOrderByOrdinal();
+        }
+        List<String> entries = new ArrayList<>(ordinals.size());
+        for (AuthorityOrdinalEntity ordinal : ordinals) {
+            entries.add(ordinal.getAuthority());
+        }
+        dictionary = AuthorityDictionary.of(List.copyOf(entries));
+        lastReload = System.currentTimeMillis();
+    }
+
+    private Set<String> currentAuthorities() {
+        Set<String> authorities = new LinkedHashSet<>();
+        // Rows without a name are skipped, the same as in the V4 seed
+        for (RoleEntity role : roleRepository.findAll()) {
+            if (role.getName() != null) {
+                authorities.add("ROLE_" + role.getName());
+            }
+        }
+        for (PermissionEntity permission : permissionRepository.findAll()) {
+            if (permission.getPermission() != null) {
+                authorities.add(permission.getPermission());
+            }
+        }
+        return authorities;
+    }
+
+    // Other nodes append concurrently, the unique ordinal and authority constraints decide who wins
+    private void append(String authority) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                authorityOrdinalRepository.append(authorityOrdinalRepository.nextOrdinal(), authority);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (authorityOrdinalRepository.existsByAuthority(authority)) {
+                    return;
+                }
+                if (attempt == MAX_APPEND_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public GrantedAuthority intern(String authority) {
+        return interned.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    public List<GrantedAuthority> intern(List<String> authorities) {
+        if (authorities == null) {
+            return List.of();
+        }
+        List<GrantedAuthority> result = new ArrayList<>(authorities.size());
+        for (String authority : authorities) {
+            result.add(intern(authority));
+        }
+        return result;
+    }
+
+    public Optional<EncodedAuthorities> encode(Collection<String> authorities) {
+        Optional<EncodedAuthorities> encoded = dictionary.encode(authorities);
+        // Another node may have created the role or permission, so look again before giving up
+        if (encoded.isEmpty() && reloadIfStale()) {
+            encoded = dictionary.encode(authorities);
+        }
+        return encoded;
+    }
+
+    public List<GrantedAuthority> decode(int version, String bits) {
+        return decoded.get(new EncodedAuthorities(version, bits), this::decodeBits);
+    }
+
+    private List<GrantedAuthority> decodeBits(EncodedAuthorities encoded) {
+        AuthorityDictionary current = dictionary;
+        Integer size = current.prefixSizes().get(encoded.version());
+        if (size == null && reloadIfStale()) {
+            current = dictionary;
+            size = current.prefixSizes().get(encoded.version());
+        }
+        if (size == null) {
+            throw new JwtException("Unknown authority dictionary version");
+        }
+        BitSet bitSet = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded.bits()));
+        if (bitSet.length() > size) {
+            throw new JwtException("Authority bits do not match the dictionary version");
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(bitSet.cardinality());
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            authorities.add(intern(current.entries().get(i)));
+        }
+        return List.copyOf(authorities);
+    }
+
+    private synchronized boolean reloadIfStale() {
+        if (System.currentTimeMillis() - lastReload < MIN_RELOAD_INTERVAL) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    public record EncodedAuthorities(int version, String bits) {
+    }
+
+    private record AuthorityDictionary(
+            List<String> entries,
+            Map<String, Integer> positions,
+            Map<Integer, Integer> prefixSizes,
+            int version
+    ) {
+        static final AuthorityDictionary EMPTY = of(List.of());
+
+        static AuthorityDictionary of(List<String> entries) {
+            Map<String, Integer> positions = new HashMap<>();
+            Map<Integer, Integer> prefixSizes = new HashMap<>();
+            int version = 1;
+            prefixSizes.put(version, 0);
+            for (int i = 0; i < entries.size(); i++) {
+                positions.put(entries.get(i), i);
+                version = 31 * version + entries.get(i).hashCode();
+                prefixSizes.put(version, i + 1);
+            }
+            return new AuthorityDictionary(entries, Map.copyOf(positions), Map.copyOf(prefixSizes), version);
+        }
+
+        Optional<EncodedAuthorities> encode(Collection<String> authorities) {
+            BitSet bitSet = new BitSet(entries.size());
+            for (String authority : authorities) {
+                Integer position = positions.get(authority);
+                if (position == null) {
+                    return Optional.empty();
+                }
+                bitSet.set(position);
+            }
+            String bits = Base64.getUrlEncoder().withoutPadding().encodeToString(bitSet.toByteArray());
+            return Optional.of(new EncodedAuthorities(version, bits));
+        }
+    }
+}
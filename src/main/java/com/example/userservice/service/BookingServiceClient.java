@@ -0,0 +1,113 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.request.ExchangeDataDto;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * Working days of doctors from HYBRID-BOOKING-SERVICE, cached per doctor with stale-while-revalidate:
+ * after fresh-for a read still returns the last known days and a background refresh is started, and a failed
+ * refresh keeps them until keep-for runs out. Calls go through a circuit breaker over a RestTemplate with
+ * connect and read timeouts. With nothing cached and the booking service down, the doctor has no working days.
+ */
+@Slf4j
+@Service
+public class BookingServiceClient {
+    private static final String SERVICE = "HYBRID-BOOKING-SERVICE";
+    private static final ParameterizedTypeReference<List<LocalDate>> DATES = new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final ServiceTokenProvider serviceTokenProvider;
+    private final URI workingDaysUrl;
+    private final CircuitBreaker circuitBreaker;
+    private final LoadingCache<UUID, List<LocalDate>> workingDays;
+    private final Timer success;
+    private final Timer failure;
+
+    public BookingServiceClient(
+            @Qualifier("bookingRestTemplate") RestTemplate restTemplate,
+            ServiceTokenProvider serviceTokenProvider,
+            MeterRegistry meterRegistry,
+            @Value("${services.get-working-days}") String workingDaysUrl,
+            @Value("${services.booking.working-days.fresh-for}") long freshFor,
+            @Value("${services.booking.working-days.keep-for}") long keepFor,
+            @Value("${services.booking.working-days.max-size}") long maxSize,
+            @Value("${services.booking.circuit-breaker.failure-rate-threshold}") float failureRateThreshold,
+            @Value("${services.booking.circuit-breaker.sliding-window-size}") int slidingWindowSize,
+            @Value("${services.booking.circuit-breaker.wait-in-open-state}") long waitInOpenState
+    ) {
+        this.restTemplate = restTemplate;
+        this.serviceTokenProvider = serviceTokenProvider;
+        this.workingDaysUrl = URI.create(workingDaysUrl);
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(slidingWindowSize, 10))
+                .waitDurationInOpenState(Duration.ofMillis(waitInOpenState))
+                .recordExceptions(RestClientException.class)
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("booking-service");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        this.workingDays = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofMillis(freshFor))
+                .expireAfterWrite(Duration.ofMillis(keepFor))
+                .recordStats()
+                .build(this::fetchWorkingDays);
+        CaffeineCacheMetrics.monitor(meterRegistry, workingDays, "booking.working-days");
+        this.success = meterRegistry.timer("booking.requests", "operation", "working-days", "outcome", "success");
+        this.failure = meterRegistry.timer("booking.requests", "operation", "working-days", "outcome", "failure");
+    }
+
+    public List<LocalDate> getWorkingDays(UUID doctorId) {
+        try {
+            return workingDays.get(doctorId);
+        } catch (CallNotPermittedException | RestClientException e) {
+            log.warn("Working days of doctor {} are unavailable: {}", doctorId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private List<LocalDate> fetchWorkingDays(UUID doctorId) {
+        return circuitBreaker.executeSupplier(() -> {
+            long start = System.nanoTime();
+            try {
+                HttpHeaders httpHeaders = new HttpHeaders();
+                httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+                httpHeaders.setBearerAuth(serviceTokenProvider.getToken(SERVICE));
+                HttpEntity<ExchangeDataDto> entity = new HttpEntity<>(new ExchangeDataDto(doctorId.toString()), httpHeaders);
+                List<LocalDate> dates = restTemplate.exchange(workingDaysUrl, HttpMethod.POST, entity, DATES).getBody();
+                success.record(Duration.ofNanos(System.nanoTime() - start));
+                return dates == null ? List.of() : List.copyOf(dates);
+            } catch (RuntimeException e) {
+                failure.record(Duration.ofNanos(System.nanoTime() - start));
+                throw e;
+            }
+        });
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.request.doctor.DoctorDetailsForFront;
+import com.example.userservice.domain.dto.request.doctor.SpecialtyWithDoctorCount;
+import com.example.userservice.domain.entity.doctor.DoctorStatus;
+import com.example.userservice.domain.projection.DoctorDirectoryRow;
+import com.example.userservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * Per-hospital read model behind the public doctor listings: doctors sorted by (fullName, id) and grouped by
+ * specialty, plus each specialty with its active-doctor count from one grouped query. Snapshots are immutable
+ * and swapped whole.
+ * Writers on this node call refresh with the doctor's id after their change is saved, which rebuilds only
+ * the affected hospitals from a single-row lookup and drops their counts. Changes made on other nodes arrive
+ * through the periodic background reload, while readers keep getting the previous snapshot.
+ */
+@Service
+public class DoctorDirectory {
+    private static final Comparator<DoctorEntry> NAME_ORDER = Comparator
+            .comparing(DoctorEntry::fullName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(DoctorEntry::id);
+
+    private final UserRepository userRepository;
+    private final LoadingCache<UUID, HospitalDoctors> hospitals;
+    private final LoadingCache<UUID, HospitalSpecialties> specialties;
+
+    public DoctorDirectory(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${doctor.directory.max-hospitals}") long maxHospitals,
+            @Value("${doctor.directory.refresh-interval}") long refreshInterval
+    ) {
+        this.userRepository = userRepository;
+        // A refresh that overlaps a local update is dropped by Caffeine, so it cannot undo the newer snapshot
+        this.hospitals = Caffeine.newBuilder()
+                .maximumSize(maxHospitals)
+                .refreshAfterWrite(Duration.ofMillis(refreshInterval))
+                .recordStats()
+                .build(this::load);
+        this.specialties = Caffeine.newBuilder()
+                .maximumSize(maxHospitals)
+                .refreshAfterWrite(Duration.ofMillis(refreshInterval))
+                .recordStats()
+                .build(this::loadSpecialties);
+        CaffeineCacheMetrics.monitor(meterRegistry, hospitals, "doctors.directory");
+        CaffeineCacheMetrics.monitor(meterRegistry, specialties, "doctors.specialties");
+    }
+
+    public HospitalDoctors get(UUID hospitalId) {
+        return hospitals.get(hospitalId);
+    }
+
+    public HospitalSpecialties specialties(UUID hospitalId) {
+        return specialties.get(hospitalId);
+    }
+
+    // previousHospitalId is where the doctor was listed before the change, or null if they were not listed
+    public void refresh(UUID doctorId, UUID previousHospitalId) {
+        Optional<DoctorEntry> entry = userRepository.getDoctorDirectoryRow(doctorId).map(DoctorEntry::of);
+        UUID hospitalId = entry.map(DoctorEntry::hospitalId).orElse(null);
+        if (previousHospitalId != null && !previousHospitalId.equals(hospitalId)) {
+            hospitals.asMap().computeIfPresent(previousHospitalId, (id, doctors) -> doctors.without(doctorId));
+            specialties.invalidate(previousHospitalId);
+        }
+        if (hospitalId != null) {
+            hospitals.asMap().computeIfPresent(hospitalId, (id, doctors) -> doctors.with(entry.get()));
+            specialties.invalidate(hospitalId);
+        }
+    }
+
+    private HospitalDoctors load(UUID hospitalId) {
+        return HospitalDoctors.of(userRepository.getDoctorDirectory(hospitalId).stream().map(DoctorEntry::of).toList());
+    }
+
+    private HospitalSpecialties loadSpecialties(UUID hospitalId) {
+        List<SpecialtyWithDoctorCount> counts = userRepository.getSpecialtyCountsFromHospital(hospitalId);
+        return new HospitalSpecialties(List.copyOf(counts), counts.stream().map(SpecialtyWithDoctorCount::getSpecialty).toList());
+    }
+
+    public record HospitalSpecialties(List<SpecialtyWithDoctorCount> counts, List<String> names) {
+    }
+
+    public record DoctorEntry(UUID id, String fullName, String specialty, DoctorStatus status, UUID hospitalId,
+                              DoctorDetailsForFront details) {
+        static DoctorEntry of(DoctorDirectoryRow row) {
+            return new DoctorEntry(row.getId(), row.getFullName(), row.getSpecialty(), row.getStatus(), row.getHospitalId(),
+                    new DoctorDetailsForFront(row.getId(), row.getFullName(), row.getSpecialty()));
+        }
+    }
+
+    public static final class HospitalDoctors {
+        private final List<DoctorEntry> entries;
+        private final List<DoctorDetailsForFront> doctors;
+        private final Map<String, List<DoctorDetailsForFront>> bySpecialty;
+
+        private HospitalDoctors(List<DoctorEntry> entries) {
+            this.entries = entries;
+            List<DoctorDetailsForFront> doctors = new ArrayList<>(entries.size());
+            Map<String, List<DoctorDetailsForFront>> bySpecialty = new LinkedHashMap<>();
+            for (DoctorEntry entry : entries) {
+                doctors.add(entry.details());
+                if (entry.specialty() != null) {
+                    bySpecialty.computeIfAbsent(entry.specialty(), specialty -> new ArrayList<>()).add(entry.details());
+                }
+            }
+            bySpecialty.replaceAll((specialty, list) -> List.copyOf(list));
+            this.doctors = List.copyOf(doctors);
+            this.bySpecialty = Map.copyOf(bySpecialty);
+        }
+
+        static HospitalDoctors of(Collection<DoctorEntry> entries) {
+            List<DoctorEntry> sorted = new ArrayList<>(entries);
+            sorted.sort(NAME_ORDER);
+            return new HospitalDoctors(List.copyOf(sorted));
+        }
+
+        HospitalDoctors with(DoctorEntry entry) {
+            List<DoctorEntry> updated = new ArrayList<>(entries.size() + 1);
+            for (DoctorEntry existing : entries) {
+                if (!existing.id().equals(entry.id())) {
+                    updated.add(existing);
+                }
+            }
+            int position = Collections.binarySearch(updated, entry, NAME_ORDER);
+            updated.add(-position - 1, entry);
+            return new HospitalDoctors(List.copyOf(updated));
+        }
+
+        HospitalDoctors without(UUID doctorId) {
+            return new HospitalDoctors(entries.stream().filter(entry -> !entry.id().equals(doctorId)).toList());
+        }
+
+        public List<DoctorEntry> entries() {
+            return entries;
+        }
+
+        public List<DoctorDetailsForFront> bySpecialty(String specialty) {
+            return bySpecialty.getOrDefault(specialty, List.of());
+        }
+
+        public List<DoctorDetailsForFront> page(int page, int size) {
+            int from = (int) Math.min((long) page * size, doctors.size());
+            return doctors.subList(from, Math.min(from + size, doctors.size()));
+        }
+
+        // First page strictly after (fullName, id), in the same order the snapshot is sorted in
+        public List<DoctorDetailsForFront> pageAfter(String fullName, UUID id, int size) {
+            DoctorEntry probe = new DoctorEntry(id, fullName, null, null, null, null);
+            int position = Collections.binarySearch(entries, probe, NAME_ORDER);
+            int from = position >= 0 ? position + 1 : -position - 1;
+            return doctors.subList(from, Math.min(from + size, doctors.size()));
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.userservice.service;
 
 import com.example.userservice.domain.dto.request.DoctorCreateDto;
-import com.example.userservice.domain.dto.request.ExchangeDataDto;
 import com.example.userservice.domain.dto.request.doctor.DoctorDetailsForFront;
 import com.example.userservice.domain.dto.request.doctor.DoctorResponseForFront;
 import com.example.userservice.domain.dto.request.doctor.DoctorsWithSpecialtiesForFront;
+import com.example.userservice.domain.dto.request.doctor.SpecialtyWithDoctorCount;
 import com.example.userservice.domain.dto.request.doctor.WorkingDays;
 import com.example.userservice.domain.dto.response.StandardResponse;
 import com.example.userservice.domain.dto.response.Status;
@@ -17,45 +17,36 @@ import com.example.userservice.domain.entity.user.UserEntity;
 import com.example.userservice.exception.DataNotFoundException;
 import com.example.userservice.exception.RequestValidationException;
 import com.example.userservice.exception.UserBadRequestException;
+import com.example.userservice.mapper.DoctorMapper;
 import com.example.userservice.repository.*;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.ObjectError;
-import org.springframework.web.client.RestTemplate;
 
-import java.net.URI;
 import java.security.Principal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class DoctorService {
-    private final ModelMapper modelMapper;
+    private final DoctorMapper doctorMapper;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
     private final DoctorSpecialtyRepository doctorSpecialtyRepository;
-    private final JwtService jwtService;
-
-    private final RestTemplate restTemplate;
-    @Value("${services.get-working-days}")
-    private String getWorkingDays;
+    private final TokenEpochService tokenEpochService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final DoctorDirectory doctorDirectory;
+    private final SpecialtyCatalog specialtyCatalog;
+    private final BookingServiceClient bookingServiceClient;
 
 
     public StandardResponse<UserEntity> saveDoctor(DoctorCreateDto drCreateDto, BindingResult bindingResult, Principal principal){
@@ -66,7 +57,7 @@ public class DoctorService {
         UserEntity user = userRepository.findByEmail(drCreateDto.getEmail()).orElseThrow(() -> new DataNotFoundException("User not found"));
         checkDoctorEmail(user);
 
-        DoctorInfo doctorInfo = modelMapper.map(drCreateDto, DoctorInfo.class);
+        DoctorInfo doctorInfo = doctorMapper.toEntity(drCreateDto);
         DoctorSpecialty specialty = doctorSpecialtyRepository.findDoctorSpecialtyByName(drCreateDto.getDoctorSpecialty()).orElseThrow(() -> new DataNotFoundException("Doctor specialty not found"));
         doctorInfo.setDoctorSpecialty(specialty);
         List<RoleEntity> roles = user.getRoles();
@@ -86,61 +77,70 @@ public class DoctorService {
         doctorInfo.setUpdatedDate(LocalDateTime.now());
         user.setDoctorInfo(doctorRepository.save(doctorInfo));
 
-        UserEntity userEntity = userRepository.findByEmail(principal.getName()).orElseThrow();
-        user.setEmployeeOfHospital(userEntity.getEmployeeOfHospital());
+        UUID previousHospitalId = user.getEmployeeOfHospital();
+        user.setEmployeeOfHospital(userSnapshotCache.findByEmail(principal.getName()).orElseThrow().employeeOfHospital());
+        UserEntity savedDoctor = userRepository.save(user);
+        tokenEpochService.bump(savedDoctor.getEmail());
+        doctorDirectory.refresh(savedDoctor.getId(), previousHospitalId);
 
         return StandardResponse.<UserEntity>builder().status(Status.SUCCESS)
                 .message("Doctor successfully added")
-                .data(userRepository.save(user))
+                .data(savedDoctor)
                 .build();
     }
-    public StandardResponse<DoctorsWithSpecialtiesForFront> getAllDoctor(int page,int size, UUID hospitalId){
-        Sort sort = Sort.by(Sort.Direction.ASC,"fullName");
-        Pageable pageable = PageRequest.of(page,size,sort);
-        List<UserEntity> doctors = userRepository.getAllDoctorsFromHospital(hospitalId, pageable).getContent();
+    // Seeks past the cursor on (fullName, id); page is only honoured for clients that do not send a cursor yet
+    public StandardResponse<DoctorsWithSpecialtiesForFront> getAllDoctor(int page,int size, String cursor, UUID hospitalId){
+        DoctorDirectory.HospitalDoctors hospitalDoctors = doctorDirectory.get(hospitalId);
+        List<DoctorDetailsForFront> doctors;
+        if (cursor == null) {
+            doctors = hospitalDoctors.page(page, size);
+        } else {
+            String[] after = PageCursor.decode(cursor, 2);
+            doctors = hospitalDoctors.pageAfter(after[0], PageCursor.toUuid(after[1]), size);
+        }
+        String nextCursor = null;
+        if (doctors.size() == size) {
+            DoctorDetailsForFront last = doctors.get(doctors.size() - 1);
+            nextCursor = PageCursor.encode(last.getFullName(), last.getId().toString());
+        }
+        DoctorDirectory.HospitalSpecialties specialties = doctorDirectory.specialties(hospitalId);
         DoctorsWithSpecialtiesForFront doctorsWithSpecialtiesForFront = DoctorsWithSpecialtiesForFront.builder()
-                .doctors(mapDoctor(doctors))
-                .specialties(getDoctorSpecialtiesFromHospital(hospitalId)).build();
+                .doctors(doctors)
+                .specialties(specialties.names())
+                .specialtyCounts(specialties.counts()).build();
         return StandardResponse.<DoctorsWithSpecialtiesForFront>builder().status(Status.SUCCESS)
-                .message("Doctor list "+page+"-page")
+                .message(cursor == null ? "Doctor list "+page+"-page" : "Doctor list")
                 .data(doctorsWithSpecialtiesForFront)
+                .nextCursor(nextCursor)
                 .build();
     }
-    public List<DoctorDetailsForFront> mapDoctor(List<UserEntity> doctors){
-        List<DoctorDetailsForFront> doctorDetailsForFronts = new ArrayList<>();
-        for (UserEntity doctor : doctors) {
-            doctorDetailsForFronts.add(DoctorDetailsForFront.builder()
-                    .id(doctor.getId())
-                    .fullName(doctor.getFullName())
-                    .specialty(doctor.getDoctorInfo().getDoctorSpecialty().getName())
-                    .build());
-        }
-        return doctorDetailsForFronts;
-    }
     public StandardResponse<String> updateDoctorStatus(String email, DoctorStatus status) {
-        userRepository.getDoctorByEmail(email).orElseThrow(()-> new DataNotFoundException("Doctor not found"));
-        doctorRepository.update(status, email);
+        UserEntity doctor = userRepository.getDoctorByEmail(email).orElseThrow(()-> new DataNotFoundException("Doctor not found"));
+        doctorRepository.update(status, email, LocalDateTime.now());
+        doctorDirectory.refresh(doctor.getId(), doctor.getEmployeeOfHospital());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Doctor status updated").build();
     }
-    public List<String> getDoctorSpecialtiesFromHospital(UUID hospitalId){
-        return userRepository.getAllSpecialtiesFromHospital(hospitalId);
+    public List<SpecialtyWithDoctorCount> getDoctorSpecialtiesFromHospital(UUID hospitalId){
+        return doctorDirectory.specialties(hospitalId).counts();
     }
-    public StandardResponse<List<DoctorSpecialty>> getAllSpecialties(){
-        return StandardResponse.<List<DoctorSpecialty>>builder().status(Status.SUCCESS)
-                .message("All specialties").data(doctorSpecialtyRepository.findAll()).build();
+    public SpecialtyCatalog.RenderedJson getAllSpecialties(){
+        return specialtyCatalog.all();
     }
     public StandardResponse<List<DoctorDetailsForFront>> getDoctorsBySpecialty(UUID hospitalId, String specialty){
-        List<UserEntity> doctors = userRepository.getAllDoctorsBySpecialty(hospitalId, specialty);
+        List<DoctorDetailsForFront> doctors = doctorDirectory.get(hospitalId).bySpecialty(specialty);
         return StandardResponse.<List<DoctorDetailsForFront>>builder().status(Status.SUCCESS)
                 .message("List of doctors by "+specialty+" specialty")
-                .data(mapDoctor(doctors))
+                .data(doctors)
                 .build();
     }
 
     public StandardResponse<String> deleteDoctorFromHospital(String email) {
         UserEntity user = userRepository.getDoctorByEmail(email).orElseThrow(() -> new DataNotFoundException("Doctor not found"));
+        UUID previousHospitalId = user.getEmployeeOfHospital();
         user.setEmployeeOfHospital(null);
         userRepository.save(user);
+        userSnapshotCache.invalidate(user.getEmail());
+        doctorDirectory.refresh(user.getId(), previousHospitalId);
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Doctor has been fired from hospital").build();
     }
     public List<RoleEntity> getRolesString(List<String> roles) {
@@ -157,27 +157,27 @@ public class DoctorService {
         }
     }
     public List<WorkingDays> getWorkingDaysOfDoctor(UUID doctorId){
-        ExchangeDataDto exchangeDataDto = new ExchangeDataDto(doctorId.toString());
-        HttpHeaders httpHeaders = new HttpHeaders();
-        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-        httpHeaders.set("Authorization", "Bearer " + jwtService.generateAccessTokenForService("HYBRID-BOOKING-SERVICE"));
-        HttpEntity<ExchangeDataDto> entity = new HttpEntity<>(exchangeDataDto, httpHeaders);
-        ParameterizedTypeReference<List<LocalDate>> responseType = new ParameterizedTypeReference<>() {};
-        List<LocalDate> dates = restTemplate.exchange(
-                URI.create(getWorkingDays),
-                HttpMethod.POST,
-                entity,
-                responseType).getBody();
-
-        List<WorkingDays> workingDays = new ArrayList<>();
-        assert dates != null;
+        List<LocalDate> dates = bookingServiceClient.getWorkingDays(doctorId);
+        List<WorkingDays> workingDays = new ArrayList<>(dates.size());
         for (LocalDate date : dates) {
             workingDays.add(WorkingDays.builder().weekDay(date.getDayOfWeek().toString()).date(date).build());
         }
         return workingDays;
     }
 
+    // Working days live in the booking service, so they are part of the version alongside the three rows
+    public Optional<ResourceVersion> getDoctorVersion(UUID doctorId, List<WorkingDays> workingDays) {
+        return userRepository.getDoctorVersion(doctorId)
+                .map(row -> ResourceVersion.of(
+                        Arrays.asList(row.getUserVersion(), row.getDoctorInfoVersion(), row.getSpecialtyVersion()),
+                        Integer.toHexString(workingDays.hashCode())));
+    }
+
     public StandardResponse<DoctorResponseForFront> getDoctorForFront(UUID doctorId) {
+        return getDoctorForFront(doctorId, getWorkingDaysOfDoctor(doctorId));
+    }
+
+    public StandardResponse<DoctorResponseForFront> getDoctorForFront(UUID doctorId, List<WorkingDays> workingDays) {
         UserEntity doctor = userRepository.getDoctorById(doctorId).orElseThrow(() -> new DataNotFoundException("Doctor not found"));
         return StandardResponse.<DoctorResponseForFront>builder()
                 .status(Status.SUCCESS)
@@ -187,12 +187,12 @@ public class DoctorService {
                         .fullName(doctor.getFullName())
                         .specialty(doctor.getDoctorInfo().getDoctorSpecialty().getName())
                         .info(doctor.getDoctorInfo().getInfo())
-                        .workingDays(getWorkingDaysOfDoctor(doctorId))
+                        .workingDays(workingDays)
                         .build())
                 .build();
     }
 
-    public StandardResponse<DoctorSpecialty> getSpecialty(UUID specialtyId) {
-        return StandardResponse.<DoctorSpecialty>builder().status(Status.SUCCESS).message("Specialty info").data(doctorSpecialtyRepository.findById(specialtyId).orElseThrow()).build();
+    public SpecialtyCatalog.RenderedJson getSpecialty(UUID specialtyId) {
+        return specialtyCatalog.byId(specialtyId).orElseThrow(() -> new DataNotFoundException("Specialty not found"));
     }
 }
\ No newline at end of file
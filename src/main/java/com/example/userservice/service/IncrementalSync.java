@@ -0,0 +1,38 @@
+package com.example.userservice.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+ * Pulls rows created or changed on other nodes by polling a timestamp column. Timestamps are taken before
+ * commit, so every poll reaches back an overlap past the previous one to pick up rows that committed late.
+ * Rows in the overlap are seen again, so applying a row has to be idempotent.
+ */
+public final class IncrementalSync<T> {
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final Duration overlap;
+    private final Function<LocalDateTime, ? extends Collection<T>> changedSince;
+    private final Consumer<T> apply;
+    private LocalDateTime lastSync = BEGINNING;
+
+    public IncrementalSync(Duration overlap, Function<LocalDateTime, ? extends Collection<T>> changedSince, Consumer<T> apply) {
+        this.overlap = overlap;
+        this.changedSince = changedSince;
+        this.apply = apply;
+    }
+
+    // Called after a full load that started at the given time
+    public synchronized void restartFrom(LocalDateTime loadStart) {
+        lastSync = loadStart;
+    }
+
+    public synchronized void poll() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        changedSince.apply(lastSync.minus(overlap)).forEach(apply);
+        lastSync = syncStart;
+    }
+}
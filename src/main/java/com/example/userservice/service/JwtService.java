@@ -5,21 +5,28 @@ import com.example.userservice.domain.entity.user.UserEntity;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
-    @Value("${jwt.secret.key}")
-    private String secretKey;
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    private final JwtTokenEngine tokenEngine;
+    private final AuthorityRegistry authorityRegistry;
+    private final TokenEpochService tokenEpochService;
 
     @Value("${jwt.access.expiry}")
     private Long accessTokenExpiry;
@@ -27,25 +34,67 @@ public class JwtService {
     @Value("${jwt.refresh.expiry}")
     private Long refreshTokenExpiry;
 
+    @Value("${jwt.service.expiry}")
+    private Long serviceTokenExpiry;
+
+    @Value("${jwt.authorities.compact}")
+    private boolean compactAuthorities;
+
     public String generateAccessToken(UserEntity userEntity){
-        return Jwts.builder()
-                .signWith(SignatureAlgorithm.HS512, secretKey)
-                .setSubject(userEntity.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(new Date().getTime() + accessTokenExpiry))
-                .addClaims(Map.of("authorities", getAuthorities(userEntity.getAuthorities())))
+        return generateAccessToken(userEntity.getUsername(), authorityClaims(getAuthorities(userEntity.getAuthorities())));
+    }
+    public String generateAccessToken(String subject, Map<String, Object> authorityClaims){
+        Date now = new Date();
+        return tokenEngine.userTokenBuilder()
+                .setSubject(subject)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + accessTokenExpiry))
+                .addClaims(authorityClaims)
+                .addClaims(Map.of(TokenEpochService.EPOCH_CLAIM, tokenEpochService.currentEpoch(subject)))
                 .compact();
     }
     public String generateRefreshToken(UserEntity userEntity){
-        return Jwts.builder()
-                .signWith(SignatureAlgorithm.HS512, secretKey)
-                .setSubject(userEntity.getEmail())
+        return generateRefreshToken(userEntity.getEmail(), authorityClaims(getAuthorities(userEntity.getAuthorities())));
+    }
+    public String generateRefreshToken(String subject, Map<String, Object> authorityClaims){
+        Date expiration = new Date(System.currentTimeMillis() + refreshTokenExpiry);
+        return generateRefreshToken(subject, authorityClaims, expiration);
+    }
+    // Refresh tokens carry the authorities so a rotation can mint the next access token without loading the user
+    public String generateRefreshToken(String subject, Map<String, Object> authorityClaims, Date expiration){
+        return tokenEngine.userTokenBuilder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(subject)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(new Date().getTime() + refreshTokenExpiry))
+                .setExpiration(expiration)
+                .addClaims(authorityClaims)
+                .addClaims(Map.of(
+                        TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE,
+                        TokenEpochService.EPOCH_CLAIM, tokenEpochService.currentEpoch(subject)))
                 .compact();
     }
     public Jws<Claims> extractToken(String token){
-        return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token);
+        return tokenEngine.parse(token);
+    }
+    public Map<String, Object> authorityClaims(Claims claims) {
+        Map<String, Object> authorityClaims = new HashMap<>();
+        for (String name : List.of(AuthorityRegistry.VERSION_CLAIM, AuthorityRegistry.BITS_CLAIM, "authorities")) {
+            if (claims.containsKey(name)) {
+                authorityClaims.put(name, claims.get(name));
+            }
+        }
+        return authorityClaims;
+    }
+    public Map<String, Object> authorityClaims(List<String> authorities) {
+        if (compactAuthorities) {
+            Optional<AuthorityRegistry.EncodedAuthorities> encoded = authorityRegistry.encode(authorities);
+            if (encoded.isPresent()) {
+                return Map.of(
+                        AuthorityRegistry.VERSION_CLAIM, encoded.get().version(),
+                        AuthorityRegistry.BITS_CLAIM, encoded.get().bits());
+            }
+        }
+        return Map.of("authorities", authorities);
     }
     private List<String> getAuthorities(Collection<? extends GrantedAuthority> authorities) {
         return authorities.stream()
@@ -53,10 +102,12 @@ public class JwtService {
                 .toList();
     }
     public String generateAccessTokenForService(String receiverService){
-        return Jwts.builder()
-                .signWith(SignatureAlgorithm.HS512, secretKey)
+        Date now = new Date();
+        return tokenEngine.serviceTokenBuilder()
                 .setIssuer("USER-SERVICE")
                 .setSubject(receiverService)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + serviceTokenExpiry))
                 .addClaims(Map.of("authorities", List.of("ROLE_SENDER")))
                 .compact();
     }
@@ -0,0 +1,95 @@
+package com.example.userservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import javax.xml.bind.DatatypeConverter;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Holds the signing key ring and a single shared parser, both built once at startup
+@Service
+public class JwtTokenEngine {
+    private final String activeKeyId;
+    private final SecretKey activeKey;
+    private final Map<String, SecretKey> keyRing;
+    private final SignatureAlgorithm serviceTokenAlgorithm;
+    private final JwtParser parser;
+
+    public JwtTokenEngine(
+            @Value("${jwt.secret.key}") String secretKey,
+            @Value("${jwt.secret.key-id}") String keyId,
+            @Value("${jwt.secret.retired-keys:}") List<String> retiredKeys,
+            @Value("${jwt.service.algorithm}") SignatureAlgorithm serviceTokenAlgorithm
+    ) {
+        this.activeKeyId = keyId;
+        this.activeKey = decodeKey(secretKey);
+        this.serviceTokenAlgorithm = serviceTokenAlgorithm;
+        Map<String, SecretKey> keys = new HashMap<>();
+        // Retired keys are written as "kid:secret" and are only used to verify tokens issued before a rotation
+        for (String retiredKey : retiredKeys) {
+            int separator = retiredKey.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Retired jwt keys must be written as kid:secret");
+            }
+            keys.put(retiredKey.substring(0, separator), decodeKey(retiredKey.substring(separator + 1)));
+        }
+        keys.put(activeKeyId, activeKey);
+        this.keyRing = Map.copyOf(keys);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new KeyRingResolver())
+                .build();
+    }
+
+    public JwtBuilder userTokenBuilder() {
+        return builder(SignatureAlgorithm.HS512);
+    }
+
+    public JwtBuilder serviceTokenBuilder() {
+        return builder(serviceTokenAlgorithm);
+    }
+
+    public Jws<Claims> parse(String token) {
+        return parser.parseClaimsJws(token);
+    }
+
+    private JwtBuilder builder(SignatureAlgorithm algorithm) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKeyId)
+                .signWith(activeKey, algorithm);
+    }
+
+    // Same lenient base64 decoding jjwt 0.9 applied to string secrets, so already issued tokens stay valid
+    private static SecretKey decodeKey(String secret) {
+        return Keys.hmacShaKeyFor(DatatypeConverter.parseBase64Binary(secret));
+    }
+
+    private class KeyRingResolver extends SigningKeyResolverAdapter {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            String keyId = header.getKeyId();
+            // Tokens minted before key ids were introduced have no kid header
+            if (keyId == null) {
+                return activeKey;
+            }
+            SecretKey key = keyRing.get(keyId);
+            if (key == null) {
+                throw new JwtException("Unknown signing key id " + keyId);
+            }
+            return key;
+        }
+    }
+}
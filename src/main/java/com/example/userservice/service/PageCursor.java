@@ -0,0 +1,69 @@
+package com.example.userservice.service;
+
+import com.example.userservice.exception.UserBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// Opaque continuation token for keyset pagination: the sort key values of the last row a client has seen
+public final class PageCursor {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // Stands in for a null sort key, it is outside the base64url alphabet so it cannot collide with a value
+    private static final String NULL_VALUE = "~";
+
+    private PageCursor() {
+    }
+
+    public static String encode(String... values) {
+        StringBuilder token = new StringBuilder();
+        for (String value : values) {
+            if (!token.isEmpty()) {
+                token.append('.');
+            }
+            token.append(value == null ? NULL_VALUE : ENCODER.encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    public static String[] decode(String cursor, int size) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != size) {
+            throw new UserBadRequestException("Invalid cursor");
+        }
+        try {
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = NULL_VALUE.equals(parts[i]) ? null : new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new UserBadRequestException("Invalid cursor");
+        }
+    }
+
+    public static UUID toUuid(String value) {
+        if (value == null) {
+            throw new UserBadRequestException("Invalid cursor");
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new UserBadRequestException("Invalid cursor");
+        }
+    }
+
+    public static LocalDateTime toDateTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new UserBadRequestException("Invalid cursor");
+        }
+    }
+}
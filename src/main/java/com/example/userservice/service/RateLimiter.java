@@ -0,0 +1,64 @@
+package com.example.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+// Token buckets per key, guarded by a fixed set of striped locks; idle buckets are evicted by the cache
+public class RateLimiter {
+    private final Cache<String, TokenBucket> buckets;
+    private final Object[] locks;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoTime;
+
+    public RateLimiter(int capacity, int refillPerMinute, int stripes, long maxKeys, Duration idleTimeout) {
+        this(capacity, refillPerMinute, stripes, maxKeys, idleTimeout, System::nanoTime);
+    }
+
+    RateLimiter(int capacity, int refillPerMinute, int stripes, long maxKeys, Duration idleTimeout, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) Duration.ofMinutes(1).toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        this.locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    // Returns 0 when a token was taken, otherwise the nanoseconds until the next one is available
+    public long tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, now));
+        synchronized (locks[(key.hashCode() & Integer.MAX_VALUE) % locks.length]) {
+            // now was read before the lock, so another thread may already have refilled up to a later time
+            bucket.tokens = Math.min(capacity, bucket.tokens + Math.max(0, now - bucket.lastRefill) * tokensPerNano);
+            bucket.lastRefill = Math.max(bucket.lastRefill, now);
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    private static class TokenBucket {
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+}
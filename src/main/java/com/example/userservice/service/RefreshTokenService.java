@@ -0,0 +1,100 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.request.user.RefreshTokenDto;
+import com.example.userservice.domain.dto.response.JwtResponse;
+import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.domain.dto.response.Status;
+import com.example.userservice.domain.entity.token.RevokedTokenEntity;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.domain.entity.user.UserState;
+import com.example.userservice.exception.AuthenticationFailedException;
+import com.example.userservice.exception.DataNotFoundException;
+import com.example.userservice.repository.RevokedTokenRepository;
+import com.example.userservice.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+
+/*
+ * Rotates refresh tokens without touching the users table. Every rotation costs one insert: the used token id
+ * goes into revoked_token before new tokens are issued, and the unique token_id constraint refuses a replay
+ * on any node. Rows are deleted once the token they revoke has expired.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private final JwtService jwtService;
+    private final TokenEpochService tokenEpochService;
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    public StandardResponse<JwtResponse> refresh(RefreshTokenDto refreshTokenDto) {
+        Claims claims;
+        try {
+            claims = jwtService.extractToken(refreshTokenDto.getRefreshToken()).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationFailedException("Invalid refresh token");
+        }
+        Map<String, Object> authorityClaims = jwtService.authorityClaims(claims);
+        String tokenType = claims.get(JwtService.TOKEN_TYPE_CLAIM, String.class);
+        JwtResponse jwtResponse;
+        if (JwtService.REFRESH_TOKEN_TYPE.equals(tokenType) && claims.getId() != null) {
+            if (!markUsed(claims.getId(), claims.getExpiration())) {
+                throw new AuthenticationFailedException("Refresh token has already been used");
+            }
+            if (tokenEpochService.isCurrent(claims)) {
+                jwtResponse = JwtResponse.builder()
+                        .accessToken(jwtService.generateAccessToken(claims.getSubject(), authorityClaims))
+                        .refreshToken(jwtService.generateRefreshToken(claims.getSubject(), authorityClaims, claims.getExpiration()))
+                        .build();
+            } else {
+                // The user was blocked or their roles changed since this token was minted
+                jwtResponse = reissueFromDatabase(claims.getSubject());
+            }
+        } else if (tokenType == null && authorityClaims.isEmpty()) {
+            // Refresh tokens issued before rotation carry neither a type nor authorities
+            jwtResponse = reissueFromDatabase(claims.getSubject());
+        } else {
+            throw new AuthenticationFailedException("Invalid refresh token");
+        }
+        return StandardResponse.<JwtResponse>builder().status(Status.SUCCESS).message("Tokens successfully refreshed").data(jwtResponse).build();
+    }
+
+    private JwtResponse reissueFromDatabase(String email) {
+        UserEntity userEntity = userRepository.findByEmail(email)
+                .orElseThrow(() -> new DataNotFoundException("user not found"));
+        if (userEntity.getState() == UserState.BLOCKED) {
+            throw new AuthenticationFailedException("Your account is blocked. Please contact to admin@gmail.com for further information");
+        }
+        return JwtResponse.builder()
+                .accessToken(jwtService.generateAccessToken(userEntity))
+                .refreshToken(jwtService.generateRefreshToken(userEntity))
+                .build();
+    }
+
+    private boolean markUsed(String tokenId, Date expiration) {
+        try {
+            revokedTokenRepository.saveAndFlush(RevokedTokenEntity.builder()
+                    .tokenId(tokenId)
+                    .expiresAt(LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Already used, here or on another node
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.revocation.cleanup-interval}", initialDelayString = "${jwt.refresh.revocation.cleanup-interval}")
+    public void removeExpired() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+}
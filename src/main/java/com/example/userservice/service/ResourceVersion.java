@@ -0,0 +1,26 @@
+package com.example.userservice.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.StringJoiner;
+
+// Weak validator for a response assembled from one or more rows: their update times plus anything else it depends on.
+// lastModified is only set when the update times are all there is; otherwise it is -1 and only the ETag validates
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion of(List<LocalDateTime> updatedDates, Object... tags) {
+        StringJoiner etag = new StringJoiner(".", "W/\"", "\"");
+        long lastModified = -1;
+        for (LocalDateTime updatedDate : updatedDates) {
+            long millis = updatedDate == null ? 0 : updatedDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            etag.add(Long.toString(millis, 36));
+            lastModified = Math.max(lastModified, millis);
+        }
+        for (Object tag : tags) {
+            etag.add(String.valueOf(tag));
+        }
+        // A tag can change without any row changing, so a timestamp alone would validate stale data
+        return new ResourceVersion(etag.toString(), tags.length == 0 ? lastModified : -1);
+    }
+}
@@ -14,16 +14,17 @@ import com.example.userservice.domain.entity.user.UserEntity;
 import com.example.userservice.exception.DataNotFoundException;
 import com.example.userservice.exception.UniqueObjectException;
 import com.example.userservice.exception.UserBadRequestException;
+import com.example.userservice.mapper.DoctorMapper;
 import com.example.userservice.repository.DoctorSpecialtyRepository;
 import com.example.userservice.repository.PermissionRepository;
 import com.example.userservice.repository.RoleRepository;
 import com.example.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
@@ -41,9 +42,13 @@ public class RoleService {
     private final UserRepository userRepository;
     private final PermissionRepository permissionRepository;
     private final RestTemplate restTemplate;
-    private final JwtService jwtService;
-    private final ModelMapper modelMapper;
+    private final ServiceTokenProvider serviceTokenProvider;
+    private final DoctorMapper doctorMapper;
     private final DoctorSpecialtyRepository doctorSpecialtyRepository;
+    private final AuthorityRegistry authorityRegistry;
+    private final TokenEpochService tokenEpochService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final SpecialtyCatalog specialtyCatalog;
     @Value("${services.get-hospital}")
     private String getHospitalId;
 
@@ -67,9 +72,11 @@ public class RoleService {
         }
         RoleEntity roleEntity = RoleEntity.builder().name(roleDto.getName()).permissions(rolePermission).build();
         roleEntity = roleRepository.save(roleEntity);
+        authorityRegistry.reload();
         return StandardResponse.<RoleEntity>builder().status(Status.SUCCESS).message("Role successfully created").data(roleEntity).build();
     }
 
+    @Transactional(readOnly = true)
     public StandardResponse<RoleEntity> getRole(String name) {
         RoleEntity roleEntity = roleRepository.findRoleEntityByName(name).orElseThrow(() -> new DataNotFoundException("Role not found"));
         return StandardResponse.<RoleEntity>builder().status(Status.SUCCESS).message("Role successfully sent").data(roleEntity).build();
@@ -92,9 +99,11 @@ public class RoleService {
             roleEntityByName.setPermissions(updatedPermissions);
         }
         roleEntityByName.setUpdatedDate(LocalDateTime.now());
+        RoleEntity updated = roleRepository.save(roleEntityByName);
+        authorityRegistry.reload();
         return StandardResponse.<RoleEntity>builder().status(Status.SUCCESS)
                 .message("Permissions successfully added to the role")
-                .data(roleRepository.save(roleEntityByName))
+                .data(updated)
                 .build();
     }
 
@@ -106,7 +115,7 @@ public class RoleService {
         UserEntity user = userRepository.findByEmail(roleAssignDto.getEmail())
                 .orElseThrow(() -> new DataNotFoundException("User not found"));
 
-        UserEntity userEntity = userRepository.findByEmail(principal.getName()).orElseThrow();
+        UUID employeeOfHospital = userSnapshotCache.findByEmail(principal.getName()).orElseThrow().employeeOfHospital();
 
         List<RoleEntity> roles = user.getRoles();
         for (RoleEntity role : roles) {
@@ -124,8 +133,9 @@ public class RoleService {
         roles.add(roleEntity);
         user.setRoles(roles);
         user.setPermissions(permissionList);
-        user.setEmployeeOfHospital(userEntity.getEmployeeOfHospital());
+        user.setEmployeeOfHospital(employeeOfHospital);
         userRepository.save(user);
+        tokenEpochService.bump(user.getEmail());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Role successfully assigned to " + user.getEmail()).build();
     }
 
@@ -155,6 +165,7 @@ public class RoleService {
 
         user.setPermissions(permissionList);
         userRepository.save(user);
+        tokenEpochService.bump(user.getEmail());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Permissions successfully added to "+user.getEmail()).build();
     }
     public StandardResponse<String> assignHospital(HospitalAssignDto hospitalAssignDto){
@@ -171,13 +182,14 @@ public class RoleService {
         user.setRoles(roles);
         user.setEmployeeOfHospital(hospitalId);
         userRepository.save(user);
+        tokenEpochService.bump(user.getEmail());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Hospital assigned successfully").build();
     }
     public UUID checkHospitalId(UUID id) {
         ExchangeDataDto exchangeDataDto = new ExchangeDataDto(id.toString());
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
-        httpHeaders.set("Authorization", "Bearer " + jwtService.generateAccessTokenForService("HOSPITAL-SERVICE"));
+        httpHeaders.set("Authorization", "Bearer " + serviceTokenProvider.getToken("HOSPITAL-SERVICE"));
         HttpEntity<ExchangeDataDto> entity = new HttpEntity<>(exchangeDataDto, httpHeaders);
         ResponseEntity<UUID> response = restTemplate.exchange(
                 URI.create(getHospitalId),
@@ -187,10 +199,11 @@ public class RoleService {
         return Objects.requireNonNull(response.getBody());
     }
     public StandardResponse<DoctorSpecialty> saveDoctorSpecialty(DoctorSpecialtyDto doctorSpecialtyDto){
-        DoctorSpecialty specialty = modelMapper.map(doctorSpecialtyDto, DoctorSpecialty.class);
+        DoctorSpecialty specialty = doctorSpecialtyRepository.save(doctorMapper.toEntity(doctorSpecialtyDto));
+        specialtyCatalog.reload();
         return StandardResponse.<DoctorSpecialty>builder().status(Status.SUCCESS)
                 .message("Doctor specialty created successfully")
-                .data(doctorSpecialtyRepository.save(specialty))
+                .data(specialty)
                 .build();
     }
 
@@ -0,0 +1,71 @@
+package com.example.userservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps one short-lived token per receiving service and re-mints it in the background before it expires
+@Service
+@RequiredArgsConstructor
+public class ServiceTokenProvider {
+    private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ServiceToken> tokens = new ConcurrentHashMap<>();
+
+    @Value("${jwt.service.expiry}")
+    private Long serviceTokenExpiry;
+
+    @Value("${jwt.service.refresh-before}")
+    private Long refreshBefore;
+
+    @Value("${jwt.service.receivers}")
+    private List<String> receivers;
+
+    @PostConstruct
+    public void warmUp() {
+        for (String receiver : receivers) {
+            tokens.put(receiver, mint(receiver));
+        }
+    }
+
+    public String getToken(String receiverService) {
+        ServiceToken token = tokens.get(receiverService);
+        if (token != null && !token.isExpired()) {
+            meterRegistry.counter("service.token.hits", "receiver", receiverService).increment();
+            return token.value();
+        }
+        // Only receivers that were not warmed up, or a refresh that fell behind, are minted on the caller's thread
+        return tokens.compute(receiverService, (receiver, current) ->
+                current != null && !current.isExpired() ? current : mint(receiver)).value();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.service.refresh-interval}")
+    public void refreshExpiringTokens() {
+        long refreshAt = System.currentTimeMillis() + refreshBefore;
+        tokens.forEach((receiver, token) -> {
+            if (token.expiresAt() <= refreshAt) {
+                tokens.put(receiver, mint(receiver));
+            }
+        });
+    }
+
+    private ServiceToken mint(String receiverService) {
+        long expiresAt = System.currentTimeMillis() + serviceTokenExpiry;
+        String token = jwtService.generateAccessTokenForService(receiverService);
+        meterRegistry.counter("service.token.mints", "receiver", receiverService).increment();
+        return new ServiceToken(token, expiresAt);
+    }
+
+    private record ServiceToken(String value, long expiresAt) {
+        boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.domain.dto.response.Status;
+import com.example.userservice.domain.entity.doctor.DoctorSpecialty;
+import com.example.userservice.domain.projection.SpecialtyCatalogVersionRow;
+import com.example.userservice.repository.DoctorSpecialtyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * Immutable in-memory copy of the doctor specialty catalog with its responses already serialized.
+ * A new version is built whenever the catalog is saved on this node, or when the cheap count/last-updated
+ * check sees that another node changed it. ETags are content hashes, so every node hands out the same
+ * ETag for the same catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class SpecialtyCatalog {
+    private final DoctorSpecialtyRepository doctorSpecialtyRepository;
+    private final ObjectMapper objectMapper;
+    private volatile Version current;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public RenderedJson all() {
+        return current.all();
+    }
+
+    public Optional<RenderedJson> byId(UUID specialtyId) {
+        return Optional.ofNullable(current.byId().get(specialtyId));
+    }
+
+    public synchronized void reload() {
+        SpecialtyCatalogVersionRow row = doctorSpecialtyRepository.getCatalogVersion();
+        CatalogState state = new CatalogState(row.getSpecialties(), row.getLastUpdated());
+        List<DoctorSpecialty> specialties = doctorSpecialtyRepository.findAll();
+        Map<UUID, RenderedJson> byId = new HashMap<>();
+        for (DoctorSpecialty specialty : specialties) {
+            byId.put(specialty.getId(), render(StandardResponse.<DoctorSpecialty>builder().status(Status.SUCCESS)
+                    .message("Specialty info").data(specialty).build()));
+        }
+        RenderedJson all = render(StandardResponse.<List<DoctorSpecialty>>builder().status(Status.SUCCESS)
+                .message("All specialties").data(specialties).build());
+        current = new Version(state, all, Map.copyOf(byId));
+    }
+
+    @Scheduled(fixedDelayString = "${doctor.specialty-catalog.sync-interval}")
+    public void sync() {
+        SpecialtyCatalogVersionRow row = doctorSpecialtyRepository.getCatalogVersion();
+        if (!Objects.equals(current.state(), new CatalogState(row.getSpecialties(), row.getLastUpdated()))) {
+            reload();
+        }
+    }
+
+    private RenderedJson render(Object response) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(response);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new RenderedJson(body, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not render the specialty catalog", e);
+        }
+    }
+
+    public record RenderedJson(byte[] body, String etag) {
+    }
+
+    private record CatalogState(Long specialties, LocalDateTime lastUpdated) {
+    }
+
+    private record Version(CatalogState state, RenderedJson all, Map<UUID, RenderedJson> byId) {
+    }
+}
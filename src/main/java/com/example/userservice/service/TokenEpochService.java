@@ -0,0 +1,75 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.entity.token.TokenEpochEntity;
+import com.example.userservice.repository.TokenEpochRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Per-user token epoch. Tokens carry the epoch they were minted with and are rejected once the user's
+ * epoch has moved past it. Only users whose epoch was ever bumped are kept in memory, and every node
+ * pulls recently bumped epochs from the token_epoch table on a short interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenEpochService {
+    public static final String EPOCH_CLAIM = "ep";
+
+    private final TokenEpochRepository tokenEpochRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final Map<String, Integer> epochs = new ConcurrentHashMap<>();
+    private final IncrementalSync<TokenEpochEntity> changes = new IncrementalSync<>(Duration.ofSeconds(30),
+            since -> tokenEpochRepository.findAllByUpdatedDateAfter(since),
+            tokenEpoch -> advance(tokenEpoch.getEmail(), tokenEpoch.getEpoch()));
+
+    @PostConstruct
+    public void init() {
+        sync();
+    }
+
+    public int currentEpoch(String email) {
+        return epochs.getOrDefault(email, 0);
+    }
+
+    public boolean isCurrent(Claims claims) {
+        Integer epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        return (epoch == null ? 0 : epoch) >= currentEpoch(claims.getSubject());
+    }
+
+    public void bump(String email) {
+        LocalDateTime now = LocalDateTime.now();
+        if (tokenEpochRepository.increment(email, now) == 0) {
+            try {
+                tokenEpochRepository.save(TokenEpochEntity.builder().email(email).epoch(1).build());
+            } catch (DataIntegrityViolationException e) {
+                // Another node created the row first
+                tokenEpochRepository.increment(email, now);
+            }
+        }
+        tokenEpochRepository.findByEmail(email)
+                .ifPresent(tokenEpoch -> advance(email, tokenEpoch.getEpoch()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.epoch.sync-interval}")
+    public void sync() {
+        changes.poll();
+    }
+
+    // A bumped epoch always follows a change to the user, so the cached snapshot goes with it, on every node
+    private void advance(String email, int epoch) {
+        Integer previous = epochs.get(email);
+        if (previous == null || previous < epoch) {
+            epochs.merge(email, epoch, Math::max);
+            userSnapshotCache.invalidate(email);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.projection.UserIdentityRow;
+import com.example.userservice.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/*
+ * Bloom filters over every registered email and phone number. A negative answer means the value is free
+ * as far as this node knows, so sign-up skips the uniqueness queries; the users unique constraints still
+ * have the final word. Rows created or changed on other nodes are pulled in on a short interval.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserIdentityFilter {
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private volatile BloomFilter emails;
+    private volatile BloomFilter phoneNumbers;
+    private final IncrementalSync<UserIdentityRow> changes = new IncrementalSync<>(Duration.ofMinutes(1),
+            since -> userRepository.findIdentitiesUpdatedSince(since), this::register);
+
+    @Value("${user.identity-filter.expected-entries}")
+    private int expectedEntries;
+
+    @Value("${user.identity-filter.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @PostConstruct
+    public void init() {
+        LocalDateTime loadStart = LocalDateTime.now();
+        emails = new BloomFilter(expectedEntries, falsePositiveRate);
+        phoneNumbers = new BloomFilter(expectedEntries, falsePositiveRate);
+        List<UserIdentityRow> page = userRepository.findIdentities(PageRequest.of(0, LOAD_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            page.forEach(this::register);
+            UUID lastId = page.get(page.size() - 1).getId();
+            page = userRepository.findIdentitiesAfter(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+        }
+        changes.restartFrom(loadStart);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return emails.mightContain(normalizeEmail(email));
+    }
+
+    public boolean mightContainPhoneNumber(String phoneNumber) {
+        return phoneNumbers.mightContain(phoneNumber);
+    }
+
+    public void register(String email, String phoneNumber) {
+        emails.put(normalizeEmail(email));
+        phoneNumbers.put(phoneNumber);
+    }
+
+    @Scheduled(fixedDelayString = "${user.identity-filter.sync-interval}")
+    public void sync() {
+        changes.poll();
+    }
+
+    private void register(UserIdentityRow row) {
+        register(row.getEmail(), row.getPhoneNumber());
+    }
+
+    // Email uniqueness is checked case-insensitively
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.request.user.UserRequestDto;
+import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.domain.dto.response.Status;
+import com.example.userservice.domain.dto.response.UserImportError;
+import com.example.userservice.domain.dto.response.UserImportResult;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.domain.entity.user.Gender;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.domain.entity.user.UserState;
+import com.example.userservice.exception.ServiceUnavailableException;
+import com.example.userservice.exception.UserBadRequestException;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.UserRepository;
+import com.example.userservice.service.UserRoleCache.DefaultRole;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/*
+ * Streams CSV or NDJSON user rows and imports them in chunks. Each chunk is de-duplicated against itself and,
+ * with two IN queries, against the database, then hashed in parallel and inserted in JDBC batches.
+ * Only the current chunk is held in memory; rows that fail are reported by line number and skipped.
+ */
+@Service
+public class UserImportService {
+    public static final MediaType TEXT_CSV = MediaType.valueOf("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+    private static final List<String> CSV_COLUMNS = List.of("fullName", "email", "password", "dateOfBirth", "phoneNumber", "gender");
+    private static final DateTimeFormatter DATE_OF_BIRTH_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final UserRepository userRepository;
+    private final UserRoleCache userRoleCache;
+    private final UserIdentityFilter userIdentityFilter;
+    private final PasswordHashingService passwordHashingService;
+    private final UserMapper userMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public UserImportService(
+            UserRepository userRepository,
+            UserRoleCache userRoleCache,
+            UserIdentityFilter userIdentityFilter,
+            PasswordHashingService passwordHashingService,
+            UserMapper userMapper,
+            Validator validator,
+            ObjectMapper objectMapper,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${user.import.chunk-size}") int chunkSize,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize,
+            @Value("${user.import.max-reported-errors}") int maxReportedErrors
+    ) {
+        this.userRepository = userRepository;
+        this.userRoleCache = userRoleCache;
+        this.userIdentityFilter = userIdentityFilter;
+        this.passwordHashingService = passwordHashingService;
+        this.userMapper = userMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public StandardResponse<UserImportResult> importUsers(InputStream inputStream, MediaType contentType) throws IOException {
+        boolean csv = TEXT_CSV.isCompatibleWith(contentType);
+        if (!csv && !APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+            throw new UserBadRequestException("Only text/csv and application/x-ndjson are supported");
+        }
+        UserImportResult result = UserImportResult.builder().errors(new ArrayList<>()).build();
+        DefaultRole defaultRole = userRoleCache.defaultRole();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = csv ? readCsvHeader(reader.readLine()) : null;
+            int lineNumber = csv ? 1 : 0;
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setProcessed(result.getProcessed() + 1);
+                UserRequestDto row;
+                try {
+                    row = csv ? readCsvRow(line, columns) : objectMapper.readValue(line, UserRequestDto.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    reject(result, lineNumber, null, "Row could not be parsed");
+                    continue;
+                }
+                ImportRow importRow = validate(result, lineNumber, row);
+                if (importRow != null) {
+                    chunk.add(importRow);
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(result, chunk, defaultRole);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(result, chunk, defaultRole);
+            }
+        }
+        return StandardResponse.<UserImportResult>builder().status(Status.SUCCESS)
+                .message("Imported " + result.getImported() + " of " + result.getProcessed() + " users")
+                .data(result)
+                .build();
+    }
+
+    private ImportRow validate(UserImportResult result, int lineNumber, UserRequestDto row) {
+        Set<ConstraintViolation<UserRequestDto>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            List<String> messages = new ArrayList<>(violations.size());
+            for (ConstraintViolation<UserRequestDto> violation : violations) {
+                messages.add(violation.getMessage());
+            }
+            reject(result, lineNumber, row.getEmail(), String.join("; ", messages));
+            return null;
+        }
+        if (!("MALE".equals(row.getGender()) || "FEMALE".equals(row.getGender()))) {
+            reject(result, lineNumber, row.getEmail(), "Gender not found");
+            return null;
+        }
+        try {
+            LocalDate dateOfBirth = LocalDate.parse(row.getDateOfBirth(), DATE_OF_BIRTH_FORMAT);
+            return new ImportRow(lineNumber, row, dateOfBirth, Gender.valueOf(row.getGender()));
+        } catch (DateTimeParseException e) {
+            reject(result, lineNumber, row.getEmail(), "Invalid date format. Use dd.mm.yyyy.");
+            return null;
+        }
+    }
+
+    private void importChunk(UserImportResult result, List<ImportRow> chunk, DefaultRole defaultRole) {
+        // Earlier chunks are already committed, so only duplicates inside this chunk have to be tracked here
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(chunk.stream().map(row -> normalizeEmail(row.user().getEmail())).toList()));
+        Set<String> existingPhoneNumbers = new HashSet<>(userRepository.findExistingPhoneNumbers(chunk.stream().map(row -> row.user().getPhoneNumber()).toList()));
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (!existingEmails.add(normalizeEmail(row.user().getEmail()))) {
+                reject(result, row.line(), row.user().getEmail(), "email already exists");
+            } else if (!existingPhoneNumbers.add(row.user().getPhoneNumber())) {
+                reject(result, row.line(), row.user().getEmail(), "phone number already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<String> passwords;
+        try {
+            passwords = passwordHashingService.encodeAll(accepted.stream().map(row -> row.user().getPassword()).toList());
+        } catch (ServiceUnavailableException e) {
+            for (ImportRow row : accepted) {
+                reject(result, row.line(), row.user().getEmail(), e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(accepted, passwords, defaultRole));
+            accepted.forEach(row -> userIdentityFilter.register(row.user().getEmail(), row.user().getPhoneNumber()));
+            result.setImported(result.getImported() + accepted.size());
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            // A concurrent sign-up can still take an email or phone number, so find the offending rows one by one
+            for (int i = 0; i < accepted.size(); i++) {
+                List<ImportRow> single = List.of(accepted.get(i));
+                List<String> password = List.of(passwords.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(single, password, defaultRole));
+                    userIdentityFilter.register(single.get(0).user().getEmail(), single.get(0).user().getPhoneNumber());
+                    result.setImported(result.getImported() + 1);
+                } catch (RuntimeException rowException) {
+                    if (!isConstraintViolation(rowException)) {
+                        throw rowException;
+                    }
+                    UserRequestDto user = single.get(0).user();
+                    reject(result, single.get(0).line(), user.getEmail(), violationMessage(rowException, user.getEmail(), user.getPhoneNumber()));
+                }
+            }
+        }
+    }
+
+    // The flush goes through the plain EntityManager, so the violation may arrive untranslated
+    private static boolean isConstraintViolation(RuntimeException e) {
+        return e instanceof DataIntegrityViolationException || constraintViolation(e) != null;
+    }
+
+    private static ConstraintViolationException constraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    // Same resolution as sign-up: the constraint name if Postgres reports one, otherwise ask which value is taken
+    private String violationMessage(RuntimeException e, String email, String phoneNumber) {
+        ConstraintViolationException violation = constraintViolation(e);
+        if (violation != null && violation.getConstraintName() != null) {
+            String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+            if (constraint.contains("uk_users_email")) {
+                return "email already exists";
+            }
+            if (constraint.contains("uk_users_phone_number")) {
+                return "phone number already exists";
+            }
+        }
+        if (userRepository.emailExists(email)) {
+            return "email already exists";
+        }
+        if (userRepository.phoneNumberExists(phoneNumber)) {
+            return "phone number already exists";
+        }
+        return "Row violates a database constraint";
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private void persist(List<ImportRow> rows, List<String> passwords, DefaultRole defaultRole) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0 && i % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+            ImportRow row = rows.get(i);
+            UserEntity userEntity = userMapper.toEntity(row.user());
+            userEntity.setPassword(passwords.get(i));
+            userEntity.setDateOfBirth(row.dateOfBirth());
+            userEntity.setGender(row.gender());
+            userEntity.setState(UserState.UNVERIFIED);
+            // References stay managed across clear() only if they are taken again, and they never hit the database
+            userEntity.setRoles(List.of(entityManager.getReference(RoleEntity.class, defaultRole.roleId())));
+            List<PermissionEntity> permissions = new ArrayList<>(defaultRole.permissionIds().size());
+            for (UUID permissionId : defaultRole.permissionIds()) {
+                permissions.add(entityManager.getReference(PermissionEntity.class, permissionId));
+            }
+            userEntity.setPermissions(permissions);
+            entityManager.persist(userEntity);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Map<String, Integer> readCsvHeader(String header) {
+        if (header == null) {
+            throw new UserBadRequestException("CSV header is missing");
+        }
+        List<String> names = parseCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String column : CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new UserBadRequestException("CSV header must contain " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+
+    private UserRequestDto readCsvRow(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        return new UserRequestDto(
+                csvValue(values, columns.get("fullName")),
+                csvValue(values, columns.get("email")),
+                csvValue(values, columns.get("password")),
+                csvValue(values, columns.get("dateOfBirth")),
+                csvValue(values, columns.get("phoneNumber")),
+                csvValue(values, columns.get("gender")));
+    }
+
+    private static String csvValue(List<String> values, int index) {
+        return index < values.size() ? values.get(index).trim() : null;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and doubled quotes, but not line breaks
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private void reject(UserImportResult result, int line, String email, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(UserImportError.builder().line(line).email(email).message(message).build());
+        }
+    }
+
+    private record ImportRow(int line, UserRequestDto user, LocalDate dateOfBirth, Gender gender) {
+    }
+}
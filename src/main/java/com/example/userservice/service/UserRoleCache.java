@@ -0,0 +1,72 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.dto.request.role.RoleDto;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// The USER role every new account gets, kept as ids so sign-up can attach it through references without a query
+@Service
+@RequiredArgsConstructor
+public class UserRoleCache {
+    private static final String USER_ROLE = "USER";
+    private static final List<String> USER_PERMISSIONS = List.of("GET", "UPDATE", "DELETE");
+
+    private final RoleRepository roleRepository;
+    private final RoleService roleService;
+    private final TransactionTemplate transactionTemplate;
+    private volatile DefaultRole cached;
+    private volatile long loadedAt;
+
+    // Role changes made on any node reach new sign-ups once the ttl runs out
+    @Value("${user.default-role.ttl}")
+    private long ttl;
+
+    public DefaultRole defaultRole() {
+        DefaultRole role = cached;
+        if (role == null || System.currentTimeMillis() - loadedAt > ttl) {
+            role = load();
+        }
+        return role;
+    }
+
+    private synchronized DefaultRole load() {
+        if (cached != null && System.currentTimeMillis() - loadedAt <= ttl) {
+            return cached;
+        }
+        DefaultRole role = transactionTemplate.execute(status -> {
+            RoleEntity roleEntity = roleRepository.findRoleEntitiesByName(USER_ROLE);
+            if (roleEntity == null) {
+                RoleDto roleDto = RoleDto.builder().name(USER_ROLE).permissions(USER_PERMISSIONS).build();
+                roleEntity = roleService.save(roleDto).getData();
+            }
+            List<UUID> permissionIds = new ArrayList<>();
+            List<String> permissions = new ArrayList<>();
+            for (PermissionEntity permission : roleEntity.getPermissions()) {
+                permissionIds.add(permission.getId());
+                permissions.add(permission.getPermission());
+            }
+            return new DefaultRole(roleEntity.getId(), roleEntity.getName(), List.copyOf(permissionIds), List.copyOf(permissions));
+        });
+        cached = role;
+        loadedAt = System.currentTimeMillis();
+        return role;
+    }
+
+    public record DefaultRole(UUID roleId, String name, List<UUID> permissionIds, List<String> permissions) {
+        public List<String> authorities() {
+            List<String> authorities = new ArrayList<>(permissions.size() + 1);
+            authorities.add("ROLE_" + name);
+            authorities.addAll(permissions);
+            return authorities;
+        }
+    }
+}
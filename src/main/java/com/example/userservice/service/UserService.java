@@ -2,30 +2,32 @@ package com.example.userservice.service;
 
 import com.example.userservice.domain.dto.request.SetEmployment;
 import com.example.userservice.domain.dto.request.doctor.DoctorDetailsForBooking;
-import com.example.userservice.domain.dto.request.role.RoleDto;
 import com.example.userservice.domain.dto.request.user.*;
 import com.example.userservice.domain.dto.response.JwtResponse;
 import com.example.userservice.domain.dto.response.StandardResponse;
 import com.example.userservice.domain.dto.response.Status;
 import com.example.userservice.domain.entity.VerificationEntity;
 import com.example.userservice.domain.entity.role.PermissionEntity;
-import com.example.userservice.domain.entity.role.RoleEntity;
 import com.example.userservice.domain.entity.user.Gender;
 import com.example.userservice.domain.entity.user.UserEntity;
 import com.example.userservice.domain.entity.user.UserState;
+import com.example.userservice.domain.projection.UserCredentials;
 import com.example.userservice.exception.AuthenticationFailedException;
 import com.example.userservice.exception.DataNotFoundException;
 import com.example.userservice.exception.UniqueObjectException;
 import com.example.userservice.exception.UserBadRequestException;
+import com.example.userservice.mapper.UserMapper;
+import com.example.userservice.repository.PermissionRepository;
 import com.example.userservice.repository.RoleRepository;
 import com.example.userservice.repository.UserRepository;
 import com.example.userservice.repository.VerificationRepository;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.Principal;
 import java.time.LocalDate;
@@ -39,39 +41,69 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final VerificationRepository verificationRepository;
-    private final ModelMapper modelMapper;
+    private final UserMapper userMapper;
     private final MailService mailService;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
-    private final RoleService roleService;
+    private final PasswordHashingService passwordHashingService;
     private final RoleRepository roleRepository;
+    private final TokenEpochService tokenEpochService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final PermissionRepository permissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserIdentityFilter userIdentityFilter;
+    private final UserRoleCache userRoleCache;
+    private final DoctorDirectory doctorDirectory;
 
 
+    // One insert does the work: the unique constraints decide races, the identity filter skips the pre-checks for fresh values
     public StandardResponse<JwtResponse> save(UserRequestDto userRequestDto) {
-        checkUserEmailAndPhoneNumber(userRequestDto.getEmail(), userRequestDto.getPhoneNumber());
+        if(!(Objects.equals(userRequestDto.getGender(), "MALE") || Objects.equals(userRequestDto.getGender(), "FEMALE"))){
+            throw new DataNotFoundException("Gender not found");
+        }
+        String email = userRequestDto.getEmail();
+        String phoneNumber = userRequestDto.getPhoneNumber();
+        if (userIdentityFilter.mightContainEmail(email) || userIdentityFilter.mightContainPhoneNumber(phoneNumber)) {
+            checkUserEmailAndPhoneNumber(email, phoneNumber);
+        }
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
         LocalDate dateOfBirth = LocalDate.parse(userRequestDto.getDateOfBirth(), formatter);
 
-        UserEntity userEntity = modelMapper.map(userRequestDto, UserEntity.class);
-        userEntity.setState(UserState.UNVERIFIED);
-        userEntity.setDateOfBirth(dateOfBirth);
-        userEntity.setPassword(passwordEncoder.encode(userRequestDto.getPassword()));
-        RoleEntity role = roleRepository.findRoleEntitiesByName("USER");
-        if (role == null) {
-            RoleDto roleDto = RoleDto.builder().name("USER").permissions(List.of("GET", "UPDATE", "DELETE")).build();
-            role = roleService.save(roleDto).getData();
-        }
-        userEntity.setRoles(List.of(role));
-        userEntity.setPermissions(List.of(role.getPermissions().toArray(new PermissionEntity[0])));
-        if(!(Objects.equals(userRequestDto.getGender(), "MALE") || Objects.equals(userRequestDto.getGender(), "FEMALE"))){
-            throw new DataNotFoundException("Gender not found");
+        UserEntity newUser = userMapper.toEntity(userRequestDto);
+        newUser.setState(UserState.UNVERIFIED);
+        newUser.setDateOfBirth(dateOfBirth);
+        newUser.setGender(Gender.valueOf(userRequestDto.getGender()));
+        newUser.setPassword(passwordHashingService.encode(userRequestDto.getPassword()));
+        UserRoleCache.DefaultRole defaultRole = userRoleCache.defaultRole();
+        UserEntity userEntity;
+        try {
+            userEntity = transactionTemplate.execute(status -> {
+                newUser.setRoles(List.of(roleRepository.getReferenceById(defaultRole.roleId())));
+                List<PermissionEntity> permissions = new ArrayList<>(defaultRole.permissionIds().size());
+                for (UUID permissionId : defaultRole.permissionIds()) {
+                    permissions.add(permissionRepository.getReferenceById(permissionId));
+                }
+                newUser.setPermissions(permissions);
+                return userRepository.saveAndFlush(newUser);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateIdentity(e, email, phoneNumber);
         }
-        userEntity.setGender(Gender.valueOf(userRequestDto.getGender()));
-        userEntity = userRepository.save(userEntity);
-        String accessToken = jwtService.generateAccessToken(userEntity);
-        String refreshToken = jwtService.generateRefreshToken(userEntity);
-        UserDetailsForFront user = mappingUser(userEntity);
+        userIdentityFilter.register(email, phoneNumber);
+
+        Map<String, Object> authorityClaims = jwtService.authorityClaims(defaultRole.authorities());
+        String accessToken = jwtService.generateAccessToken(email, authorityClaims);
+        String refreshToken = jwtService.generateRefreshToken(email, authorityClaims);
+        UserDetailsForFront user = new UserDetailsForFront(
+                userEntity.getId(),
+                userEntity.getFullName(),
+                userEntity.getEmail(),
+                userEntity.getState(),
+                userEntity.getPhoneNumber(),
+                userEntity.getDateOfBirth(),
+                userEntity.getGender(),
+                List.of(defaultRole.name()),
+                defaultRole.permissions());
         JwtResponse jwtResponse = JwtResponse.builder()
                 .accessToken(accessToken)
                 .refreshToken(refreshToken)
@@ -82,49 +114,58 @@ public class UserService {
                 .message("Successfully signed up")
                 .data(jwtResponse).build();
     }
-    public UserDetailsForFront mappingUser(UserEntity userEntity){
-        UserDetailsForFront map = modelMapper.map(userEntity, UserDetailsForFront.class);
-        List<String> roles = new ArrayList<>();
-        for (RoleEntity role : userEntity.getRoles()) {
-            roles.add(role.getName());
+
+    // Postgres names the violated constraint; anything else is resolved by asking which value is taken
+    private RuntimeException duplicateIdentity(DataIntegrityViolationException e, String email, String phoneNumber) {
+        if (e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+            String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+            if (constraint.contains("uk_users_email")) {
+                return new UserBadRequestException("email already exists");
+            }
+            if (constraint.contains("uk_users_phone_number")) {
+                return new UserBadRequestException("phone number already exists");
+            }
         }
-        List<String> permissions = new ArrayList<>();
-        for (PermissionEntity permission : userEntity.getPermissions()) {
-            permissions.add(permission.getPermission());
+        if (userRepository.emailExists(email)) {
+            return new UserBadRequestException("email already exists");
         }
-        map.setRoles(roles);
-        map.setPermissions(permissions);
-        return map;
+        if (userRepository.phoneNumberExists(phoneNumber)) {
+            return new UserBadRequestException("phone number already exists");
+        }
+        return e;
     }
 
 
     public StandardResponse<JwtResponse> signIn(LoginRequestDto loginRequestDto) {
-        UserEntity userEntity = userRepository.findByEmail(loginRequestDto.getEmail())
+        UserCredentials credentials = UserCredentials.of(userRepository.findCredentialsByEmail(loginRequestDto.getEmail()))
                 .orElseThrow(() -> new DataNotFoundException("Incorrect email or password"));
-        if (userEntity.getState() == UserState.BLOCKED) {
+        if (credentials.state() == UserState.BLOCKED) {
             throw new AuthenticationFailedException("Your account is blocked. Please contact to admin@gmail.com for further information");
         }
-        if (passwordEncoder.matches(loginRequestDto.getPassword(), userEntity.getPassword())) {
-            String accessToken = jwtService.generateAccessToken(userEntity);
-            String refreshToken = jwtService.generateRefreshToken(userEntity);
-            List<RoleEntity> roles = userEntity.getRoles();
-            if(!roles.isEmpty()){
-                int position = 0;
-                int i = 0;
-                for(RoleEntity role : roles){
-                    if(role.getName().equals("ADMIN")){
-                        position = i;
-                    }
-                    i++;
-                }
-                if(position > 0){
-                    RoleEntity roleEntity = roles.get(0);
-                    RoleEntity admin = roles.get(position);
-                    roles.set(0, admin);
-                    roles.set(position, roleEntity);
-                }
+        if (passwordHashingService.matches(loginRequestDto.getPassword(), credentials.password())) {
+            // Hashes made with an older work factor are upgraded while the plain password is at hand
+            if (passwordHashingService.upgradeEncoding(credentials.password())) {
+                userRepository.updatePassword(credentials.id(), passwordHashingService.encode(loginRequestDto.getPassword()), LocalDateTime.now());
+                userSnapshotCache.invalidate(credentials.email());
+            }
+            Map<String, Object> authorityClaims = jwtService.authorityClaims(credentials.authorities());
+            String accessToken = jwtService.generateAccessToken(credentials.email(), authorityClaims);
+            String refreshToken = jwtService.generateRefreshToken(credentials.email(), authorityClaims);
+            List<String> roles = new ArrayList<>(credentials.roles());
+            int position = roles.indexOf("ADMIN");
+            if(position > 0){
+                Collections.swap(roles, 0, position);
             }
-            UserDetailsForFront user = mappingUser(userEntity);
+            UserDetailsForFront user = new UserDetailsForFront(
+                    credentials.id(),
+                    credentials.fullName(),
+                    credentials.email(),
+                    credentials.state(),
+                    credentials.phoneNumber(),
+                    credentials.dateOfBirth(),
+                    credentials.gender(),
+                    roles,
+                    credentials.permissions());
             JwtResponse jwtResponse = JwtResponse.builder()
                     .accessToken(accessToken)
                     .refreshToken(refreshToken)
@@ -139,7 +180,7 @@ public class UserService {
     public StandardResponse<UserDetailsForFront> updateProfile(UserUpdateRequest update, Principal principal) {
         UserEntity userEntity = userRepository.findByEmail(principal.getName())
                 .orElseThrow(() -> new UserBadRequestException("user not found"));
-        modelMapper.map(update, userEntity);
+        userMapper.update(update, userEntity);
         userEntity.setUpdatedDate(LocalDateTime.now());
         if(update.getDateOfBirth() != null){
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -150,22 +191,50 @@ public class UserService {
             if(!(Objects.equals(update.getGender(), "MALE") || Objects.equals(update.getGender(), "FEMALE"))){
                 throw new DataNotFoundException("Gender not found");
             }
+            userEntity.setGender(Gender.valueOf(update.getGender()));
         }
         userRepository.save(userEntity);
+        userSnapshotCache.invalidate(userEntity.getEmail());
+        userIdentityFilter.register(userEntity.getEmail(), userEntity.getPhoneNumber());
 
         return StandardResponse.<UserDetailsForFront>builder().status(Status.SUCCESS)
                 .message("User updated successfully")
-                .data(mappingUser(userEntity))
+                .data(userMapper.toUserDetails(userEntity))
                 .build();
     }
 
-    public StandardResponse<List<UserEntity>> getAll(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    // Seeks past the cursor on (createdDate, id); page is only honoured for clients that do not send a cursor yet
+    @Transactional(readOnly = true)
+    public StandardResponse<List<UserEntity>> getAll(int page, int size, String cursor) {
+        List<UserEntity> users;
+        if (cursor == null) {
+            users = userRepository.getUsers(PageRequest.of(page, size));
+        } else {
+            String[] after = PageCursor.decode(cursor, 2);
+            LocalDateTime createdDate = PageCursor.toDateTime(after[0]);
+            UUID id = PageCursor.toUuid(after[1]);
+            if (createdDate == null) {
+                users = userRepository.getUndatedUsersAfter(id, PageRequest.of(0, size));
+            } else {
+                users = new ArrayList<>(userRepository.getUsersAfter(createdDate, id, PageRequest.of(0, size)));
+                // Rows without a creation date sort after every dated row
+                if (users.size() < size) {
+                    users.addAll(userRepository.getUndatedUsers(PageRequest.of(0, size - users.size())));
+                }
+            }
+        }
+        String nextCursor = null;
+        if (users.size() == size) {
+            UserEntity last = users.get(users.size() - 1);
+            nextCursor = PageCursor.encode(Objects.toString(last.getCreatedDate(), null), last.getId().toString());
+        }
         return StandardResponse.<List<UserEntity>>builder().status(Status.SUCCESS)
-                .message("User list "+page+"-page")
-                .data(userRepository.findAll(pageable).getContent())
+                .message(cursor == null ? "User list "+page+"-page" : "User list")
+                .data(users)
+                .nextCursor(nextCursor)
                 .build();
     }
+
     public StandardResponse<String> sendVerificationCode(String email){
         UserEntity userEntity = userRepository.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found"));
         sendVerification(userEntity, email);
@@ -173,8 +242,7 @@ public class UserService {
     }
     public StandardResponse<String> sendVerificationCodeToChangeEmail(String email, Principal principal){
         UserEntity user = userRepository.findByEmail(principal.getName()).orElseThrow(() -> new DataNotFoundException("User not found"));
-        Optional<UserEntity> userEntity = userRepository.findByEmail(email);
-        if(userEntity.isPresent()) throw new UniqueObjectException("Email already exists");
+        if(userRepository.emailExists(email)) throw new UniqueObjectException("Email already exists");
         sendVerification(user, email);
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Verification code has been sent").build();
     }
@@ -184,7 +252,7 @@ public class UserService {
         }
         VerificationEntity verificationEntity = VerificationEntity.builder()
                 .userId(userEntity)
-                .code(generateVerificationCode())
+                .code(VerificationCodes.generate())
                 .build();
         verificationRepository.save(verificationEntity);
         mailService.sendVerificationCode(email, verificationEntity.getCode());
@@ -200,6 +268,8 @@ public class UserService {
                         .orElseThrow(() -> new DataNotFoundException("User Not Found"));
                 user.setState(UserState.ACTIVE);
                 userRepository.save(user);
+                // No epoch bump: that would revoke the tokens the user just verified with, other nodes catch up on the cache TTL
+                userSnapshotCache.invalidate(user.getEmail());
                 verificationRepository.delete(entity);
                 return StandardResponse.<String>builder().status(Status.SUCCESS).message("Successfully Verified!").build();
             }
@@ -231,6 +301,9 @@ public class UserService {
         UserEntity userEntity = userRepository.findByEmail(verifyCodeDto.getEmail()).orElseThrow(() -> new DataNotFoundException("User not found"));
         userEntity.setEmail(newEmail);
         userRepository.save(userEntity);
+        tokenEpochService.bump(verifyCodeDto.getEmail());
+        userSnapshotCache.invalidate(newEmail);
+        userIdentityFilter.register(newEmail, userEntity.getPhoneNumber());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Email successfully changed").build();
     }
 
@@ -252,48 +325,43 @@ public class UserService {
         UserEntity user = userRepository.findByEmail(updatePasswordDto.getEmail())
                 .orElseThrow(() -> new DataNotFoundException("User not found"));
 
-        user.setPassword(passwordEncoder.encode(updatePasswordDto.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(updatePasswordDto.getNewPassword()));
         user.setUpdatedDate(LocalDateTime.now());
         userRepository.save(user);
+        // Also drops the cached password hash on other nodes, and signs out sessions opened with the old password
+        tokenEpochService.bump(user.getEmail());
         return StandardResponse.<String>builder().status(Status.SUCCESS).message("Successfully updated").build();
     }
 
-    public String generateVerificationCode() {
-        Random random = new Random(System.currentTimeMillis());
-        int code = random.nextInt(1000000);
-        return String.format("%06d", code);
-    }
-
     public void checkUserEmailAndPhoneNumber(String email, String phoneNumber) {
-        if (userRepository.findByEmail(email).isPresent()) {
+        if (userRepository.emailExists(email)) {
             throw new UserBadRequestException("email already exists");
         }
-        if (userRepository.findUserEntityByPhoneNumber(phoneNumber).isPresent()) {
+        if (userRepository.phoneNumberExists(phoneNumber)) {
             throw new UserBadRequestException("phone number already exists");
         }
     }
 
-    public StandardResponse<JwtResponse> getNewAccessToken(Principal principal) {
-        UserEntity userEntity = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new DataNotFoundException("user not found"));
-        String accessToken = jwtService.generateAccessToken(userEntity);
-        JwtResponse jwtResponse = JwtResponse.builder().accessToken(accessToken).build();
-        return StandardResponse.<JwtResponse>builder().status(Status.SUCCESS).message("Access token successfully sent").data(jwtResponse).build();
-    }
     public UUID sendId(String email) {
-        return userRepository.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found")).getId();
+        return userSnapshotCache.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found")).id();
+    }
+    // Role and permission changes bump the token epoch without touching the users row
+    public Optional<ResourceVersion> getMeVersion(String email) {
+        return userSnapshotCache.findByEmail(email)
+                .map(user -> ResourceVersion.of(Arrays.asList(user.updatedDate()), tokenEpochService.currentEpoch(email)));
     }
     public StandardResponse<UserDetailsForFront> getMeByToken(String email) {
-        UserEntity userEntity = userRepository.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found"));
-        return StandardResponse.<UserDetailsForFront>builder().status(Status.SUCCESS).message("User entity").data(mappingUser(userEntity)).build();
+        UserCredentials user = userSnapshotCache.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found"));
+        return StandardResponse.<UserDetailsForFront>builder().status(Status.SUCCESS).message("User entity").data(userMapper.toUserDetails(user)).build();
     }
     public String sendEmail(UUID userId){
-        return userRepository.findById(userId).orElseThrow(() -> new DataNotFoundException("User not found")).getEmail();
+        return userSnapshotCache.findById(userId).orElseThrow(() -> new DataNotFoundException("User not found")).email();
     }
     public UUID sendHospitalId(String employeeEmail){
-        UserEntity employee = userRepository.findByEmail(employeeEmail).orElseThrow(() -> new DataNotFoundException("User not found"));
-        return employee.getEmployeeOfHospital();
+        UserCredentials employee = userSnapshotCache.findByEmail(employeeEmail).orElseThrow(() -> new DataNotFoundException("User not found"));
+        return employee.employeeOfHospital();
     }
+    @Transactional(readOnly = true)
     public DoctorDetailsForBooking sendDoctor(UUID userId){
         UserEntity doctor = userRepository.getDoctorById(userId).orElseThrow(() -> new DataNotFoundException("Doctor not found"));
         return DoctorDetailsForBooking.builder()
@@ -306,6 +374,7 @@ public class UserService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
     public UserResponseForFront sendUser(UUID userId) {
         UserEntity user = userRepository.getUserById(userId).orElseThrow(() -> new DataNotFoundException("User not found"));
         return UserResponseForFront.builder()
@@ -315,16 +384,28 @@ public class UserService {
     }
 
     public StandardResponse<Boolean> checkPassword(CheckPasswordDto checkPasswordDto, Principal principal) {
-        UserEntity userEntity = userRepository.findByEmail(principal.getName()).orElseThrow(() -> new DataNotFoundException("User not found"));
-        boolean matches = passwordEncoder.matches(checkPasswordDto.getPassword(), userEntity.getPassword());
+        UserCredentials user = userSnapshotCache.findByEmail(principal.getName()).orElseThrow(() -> new DataNotFoundException("User not found"));
+        boolean matches = passwordHashingService.matches(checkPasswordDto.getPassword(), user.password());
         if(!matches) throw new UserBadRequestException("Password not matches");
         return StandardResponse.<Boolean>builder().status(Status.SUCCESS).message("Password matches").data(true).build();
     }
 
 
+    public StandardResponse<String> blockUser(String email) {
+        UserEntity user = userRepository.findByEmail(email).orElseThrow(() -> new DataNotFoundException("User not found"));
+        user.setState(UserState.BLOCKED);
+        user.setUpdatedDate(LocalDateTime.now());
+        userRepository.save(user);
+        tokenEpochService.bump(email);
+        return StandardResponse.<String>builder().status(Status.SUCCESS).message("User has been blocked").build();
+    }
+
     public void setEmployment(SetEmployment dto) {
         UserEntity user = userRepository.findByEmail(dto.getEmail()).orElseThrow(() -> new DataNotFoundException("User not found"));
+        UUID previousHospitalId = user.getEmployeeOfHospital();
         user.setEmployeeOfHospital(dto.getHospitalId());
         userRepository.save(user);
+        userSnapshotCache.invalidate(user.getEmail());
+        doctorDirectory.refresh(user.getId(), previousHospitalId);
     }
 }
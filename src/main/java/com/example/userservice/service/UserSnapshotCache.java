@@ -0,0 +1,78 @@
+package com.example.userservice.service;
+
+import com.example.userservice.domain.projection.UserCredentials;
+import com.example.userservice.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+ * Read-through cache of immutable user snapshots, keyed by email with a secondary id -> email index.
+ * Writers must call invalidate after their change is saved; an in-flight load of the same email
+ * finishes before the invalidation is applied, so a stale snapshot is never left behind.
+ * Bumping the token epoch invalidates too, which is how other nodes learn about role changes and blocking.
+ * Changes that must not log the user out, like verification or profile edits, only invalidate locally;
+ * other nodes serve the old snapshot until user.cache.ttl expires it.
+ * Missing users are not cached.
+ */
+@Service
+public class UserSnapshotCache {
+    private final UserRepository userRepository;
+    private final Cache<String, UserCredentials> snapshots;
+    private final Cache<UUID, String> emailsById;
+
+    public UserSnapshotCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user.cache.max-size}") long maxSize,
+            @Value("${user.cache.ttl}") long ttl
+    ) {
+        this.userRepository = userRepository;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+        this.emailsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "users.snapshots");
+    }
+
+    public Optional<UserCredentials> findByEmail(String email) {
+        UserCredentials snapshot = snapshots.get(email, key -> UserCredentials.of(userRepository.findCredentialsByEmail(key)).orElse(null));
+        if (snapshot != null) {
+            emailsById.put(snapshot.id(), snapshot.email());
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    public Optional<UserCredentials> findById(UUID id) {
+        String email = emailsById.getIfPresent(id);
+        if (email != null) {
+            Optional<UserCredentials> snapshot = findByEmail(email);
+            // The email may have moved to another account since the index entry was written
+            if (snapshot.isPresent() && Objects.equals(snapshot.get().id(), id)) {
+                return snapshot;
+            }
+            emailsById.invalidate(id);
+        }
+        // Resolve the email first so the snapshot is still loaded under the per-email lock
+        return userRepository.findEmailById(id)
+                .flatMap(this::findByEmail)
+                .filter(snapshot -> Objects.equals(snapshot.id(), id));
+    }
+
+    public void invalidate(String email) {
+        snapshots.invalidate(email);
+    }
+}
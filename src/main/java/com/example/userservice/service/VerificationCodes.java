@@ -0,0 +1,15 @@
+package com.example.userservice.service;
+
+import java.util.Random;
+
+// Six-digit codes mailed to users to confirm their email
+public final class VerificationCodes {
+    private VerificationCodes() {
+    }
+
+    public static String generate() {
+        Random random = new Random(System.currentTimeMillis());
+        int code = random.nextInt(1000000);
+        return String.format("%06d", code);
+    }
+}
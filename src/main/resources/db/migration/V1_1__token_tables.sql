@@ -0,0 +1,21 @@
+-- Token revocation tables. Kept out of the baseline, which never runs on databases baselined at V1
+
+create table if not exists revoked_token (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    token_id varchar(255) not null,
+    expires_at timestamp(6) not null,
+    constraint pk_revoked_token primary key (id),
+    constraint uk_revoked_token_token_id unique (token_id)
+);
+
+create table if not exists token_epoch (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    email varchar(255) not null,
+    epoch integer not null,
+    constraint pk_token_epoch primary key (id),
+    constraint uk_token_epoch_email unique (email)
+);
@@ -0,0 +1,89 @@
+-- Schema as it was created by hibernate ddl-auto=update. Existing databases are baselined at this version.
+
+create table if not exists permission (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    permission varchar(255),
+    constraint pk_permission primary key (id)
+);
+
+create table if not exists role (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    name varchar(255),
+    constraint pk_role primary key (id)
+);
+
+create table if not exists role_permissions (
+    role_id uuid not null,
+    permissions_id uuid not null,
+    constraint fk_role_permissions_role foreign key (role_id) references role (id),
+    constraint fk_role_permissions_permission foreign key (permissions_id) references permission (id)
+);
+
+create table if not exists doctor_specialty (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    name varchar(255),
+    description varchar(255),
+    disease_treatment varchar(255),
+    constraint pk_doctor_specialty primary key (id)
+);
+
+create table if not exists doctors_info (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    status varchar(255),
+    room_number varchar(255) not null,
+    info text,
+    doctor_specialty_id uuid,
+    constraint pk_doctors_info primary key (id),
+    constraint fk_doctors_info_doctor_specialty foreign key (doctor_specialty_id) references doctor_specialty (id)
+);
+
+create table if not exists users (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    email varchar(255) not null,
+    full_name varchar(255),
+    password varchar(255) not null,
+    date_of_birth date not null,
+    phone_number varchar(255) not null,
+    gender varchar(255),
+    state varchar(255),
+    doctor_info_id uuid,
+    employee_of_hospital uuid,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_phone_number unique (phone_number),
+    constraint fk_users_doctor_info foreign key (doctor_info_id) references doctors_info (id)
+);
+
+create table if not exists users_roles (
+    users_id uuid not null,
+    roles_id uuid not null,
+    constraint fk_users_roles_user foreign key (users_id) references users (id),
+    constraint fk_users_roles_role foreign key (roles_id) references role (id)
+);
+
+create table if not exists users_permissions (
+    users_id uuid not null,
+    permissions_id uuid not null,
+    constraint fk_users_permissions_user foreign key (users_id) references users (id),
+    constraint fk_users_permissions_permission foreign key (permissions_id) references permission (id)
+);
+
+create table if not exists verification (
+    id uuid not null,
+    created_date timestamp(6),
+    updated_date timestamp(6),
+    code varchar(255),
+    user_id_id uuid,
+    constraint pk_verification primary key (id),
+    constraint fk_verification_user foreign key (user_id_id) references users (id)
+);
@@ -0,0 +1,28 @@
+-- Indexes for the lookups in UserRepository, RoleRepository, PermissionRepository and DoctorSpecialtyRepository
+
+-- Case-insensitive email lookup for the sign-up duplicate check
+create index if not exists idx_users_email_lower on users (lower(email));
+-- Doctors of a hospital, ordered the way the keyset pagination seeks
+create index if not exists idx_users_hospital_full_name on users (employee_of_hospital, full_name, id);
+-- User listing keyset pagination
+create index if not exists idx_users_created_date on users (created_date, id);
+create index if not exists idx_users_doctor_info on users (doctor_info_id);
+
+-- Join tables are read from both sides, the composite keys cover the join without touching the heap
+create index if not exists idx_users_roles_user on users_roles (users_id, roles_id);
+create index if not exists idx_users_roles_role on users_roles (roles_id, users_id);
+create index if not exists idx_users_permissions_user on users_permissions (users_id, permissions_id);
+create index if not exists idx_users_permissions_permission on users_permissions (permissions_id);
+create index if not exists idx_role_permissions_role on role_permissions (role_id, permissions_id);
+create index if not exists idx_role_permissions_permission on role_permissions (permissions_id);
+
+create index if not exists idx_verification_user on verification (user_id_id);
+create index if not exists idx_role_name on role (name);
+create index if not exists idx_permission_permission on permission (permission);
+create index if not exists idx_doctor_specialty_name on doctor_specialty (name);
+create index if not exists idx_doctors_info_doctor_specialty on doctors_info (doctor_specialty_id);
+
+-- Background syncs and cleanup on the token tables
+create index if not exists idx_revoked_token_created_date on revoked_token (created_date);
+create index if not exists idx_revoked_token_expires_at on revoked_token (expires_at);
+create index if not exists idx_token_epoch_updated_date on token_epoch (updated_date);
@@ -0,0 +1,2 @@
+-- Sign-up identity filter pulls users created or changed on other nodes by updated_date
+create index if not exists idx_users_updated_date on users (updated_date);
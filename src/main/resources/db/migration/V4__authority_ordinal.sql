@@ -0,0 +1,22 @@
+-- Persisted bit positions for the compact token authorities, so the dictionary no longer depends on creation timestamps
+create table if not exists authority_ordinal (
+    ordinal integer not null,
+    authority varchar(255) not null,
+    constraint pk_authority_ordinal primary key (ordinal),
+    constraint uk_authority_ordinal_authority unique (authority)
+);
+
+-- Seed with the order the dictionary was built in so far, tokens minted before this migration keep decoding
+insert into authority_ordinal (ordinal, authority)
+select row_number() over (order by created_date nulls first, id) - 1, authority
+from (
+    select distinct on (authority) authority, created_date, id
+    from (
+        select 'ROLE_' || name as authority, created_date, id from role
+        union all
+        select permission as authority, created_date, id from permission
+    ) sources
+    where authority is not null
+    order by authority, created_date nulls first, id
+) first_sources
+on conflict do nothing;
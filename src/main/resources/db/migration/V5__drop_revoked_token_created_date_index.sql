@@ -0,0 +1,2 @@
+-- Revocations are no longer pulled into memory by created_date, the unique token_id constraint is all markUsed needs
+drop index if exists idx_revoked_token_created_date;
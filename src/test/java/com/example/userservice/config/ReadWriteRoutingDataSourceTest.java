@@ -0,0 +1,99 @@
+package com.example.userservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A second in-memory H2 database stands in for the replica, each database answers with its own name
+class ReadWriteRoutingDataSourceTest {
+    private static final String SERVICE_METHOD = "com.example.userservice.service.UserService.getAll";
+    private static final String REPOSITORY_METHOD = "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findAll";
+
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        HikariDataSource primary = pool("primary");
+        HikariDataSource replica = pool("replica-0");
+        replica.setReadOnly(true);
+        routingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica), Duration.ofMinutes(1));
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        routingDataSource.close();
+    }
+
+    @Test
+    void serviceReadOnlyTransactionGoesToReplica() {
+        assertEquals("replica-0", nodeIn(SERVICE_METHOD, true));
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        assertEquals("primary", nodeIn(SERVICE_METHOD, false));
+    }
+
+    @Test
+    void repositoryReadOnlyTransactionGoesToPrimary() {
+        assertEquals("primary", nodeIn(REPOSITORY_METHOD, true));
+    }
+
+    @Test
+    void statementOutsideTransactionGoesToPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    @Test
+    void readsFollowOwnWritesToPrimary() {
+        authenticate("writer@example.com");
+        nodeIn(SERVICE_METHOD, false);
+        assertEquals("primary", nodeIn(SERVICE_METHOD, true));
+
+        authenticate("reader@example.com");
+        assertEquals("replica-0", nodeIn(SERVICE_METHOD, true));
+    }
+
+    private String nodeIn(String transactionName, boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName(transactionName);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private static void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("sa");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("create table if not exists node (name varchar(32))");
+        setup.execute("delete from node");
+        setup.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.userservice.controller;
+
+import com.example.userservice.domain.dto.request.user.RefreshTokenDto;
+import com.example.userservice.domain.dto.response.JwtResponse;
+import com.example.userservice.domain.dto.response.StandardResponse;
+import com.example.userservice.domain.dto.response.Status;
+import com.example.userservice.filter.JwtFilterToken;
+import com.example.userservice.service.AuthenticationService;
+import com.example.userservice.service.AuthorityRegistry;
+import com.example.userservice.service.JwtService;
+import com.example.userservice.service.RefreshTokenService;
+import com.example.userservice.service.TokenEpochService;
+import com.example.userservice.service.UserService;
+import com.example.userservice.service.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Refresh tokens minted with a typ claim must still renew through the GET endpoints older clients call
+class LegacyRefreshEndpointTest {
+    private static final String REFRESH_TOKEN = "refresh.token.value";
+
+    private RefreshTokenService refreshTokenService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.put(JwtService.TOKEN_TYPE_CLAIM, JwtService.REFRESH_TOKEN_TYPE);
+        VerifiedTokenCache verifiedTokenCache = Mockito.mock(VerifiedTokenCache.class);
+        Mockito.when(verifiedTokenCache.getVerifiedClaims(REFRESH_TOKEN)).thenReturn(claims);
+        TokenEpochService tokenEpochService = Mockito.mock(TokenEpochService.class);
+        Mockito.when(tokenEpochService.isCurrent(claims)).thenReturn(true);
+        AuthenticationService authenticationService = new AuthenticationService(Mockito.mock(AuthorityRegistry.class));
+
+        refreshTokenService = Mockito.mock(RefreshTokenService.class);
+        Mockito.when(refreshTokenService.refresh(Mockito.any())).thenReturn(StandardResponse.<JwtResponse>builder()
+                .status(Status.SUCCESS)
+                .message("Tokens successfully refreshed")
+                .data(JwtResponse.builder().accessToken("access").refreshToken("rotated").build())
+                .build());
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new AuthController(Mockito.mock(UserService.class), refreshTokenService))
+                .addFilters(new JwtFilterToken(authenticationService, verifiedTokenCache, tokenEpochService))
+                .build();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/user/auth/access-token", "/user/auth/refresh-token"})
+    void legacyEndpointRotatesBearerRefreshToken(String path) throws Exception {
+        mockMvc.perform(get(path).servletPath(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + REFRESH_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.refreshToken").value("rotated"));
+
+        ArgumentCaptor<RefreshTokenDto> refreshTokenDto = ArgumentCaptor.forClass(RefreshTokenDto.class);
+        Mockito.verify(refreshTokenService).refresh(refreshTokenDto.capture());
+        assertEquals(REFRESH_TOKEN, refreshTokenDto.getValue().getRefreshToken());
+    }
+
+    @Test
+    void refreshTokenIsStillNoBearerTokenElsewhere() throws Exception {
+        String path = "/user/auth/send-verification-code";
+        mockMvc.perform(get(path).servletPath(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + REFRESH_TOKEN))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.userservice.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/*
+ * Runs the Flyway migrations against a real Postgres and checks that the SQL behind the hot repository
+ * queries is planned with an index. Sequential scans are priced out, so the planner only falls back to
+ * one when no index can serve the query.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+    private static final String USER_ID = "'00000000-0000-7000-8000-000000000001'";
+    private static final String HOSPITAL_ID = "'00000000-0000-7000-8000-000000000002'";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .load()
+                .migrate();
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        connection.close();
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("emailExists", "select count(*) from users where lower(email) = lower('a@example.com')"),
+                Arguments.of("phoneNumberExists", "select count(*) from users where phone_number = '+998901234567'"),
+                Arguments.of("findCredentialsByEmail", "select u.id, r.name, p.permission from users u " +
+                        "left join users_roles ur on ur.users_id = u.id left join role r on r.id = ur.roles_id " +
+                        "left join users_permissions up on up.users_id = u.id left join permission p on p.id = up.permissions_id " +
+                        "where u.email = 'a@example.com'"),
+                Arguments.of("getUsersAfter", "select * from users where (created_date, id) > ('2024-01-01 00:00:00', " + USER_ID + ") " +
+                        "order by created_date, id limit 20"),
+                Arguments.of("getDoctorDirectory", "select u.id, u.full_name from users u " +
+                        "join users_roles ur on ur.users_id = u.id join role r on r.id = ur.roles_id " +
+                        "where r.name = 'DOCTOR' and u.employee_of_hospital = " + HOSPITAL_ID),
+                Arguments.of("findIdentitiesUpdatedSince", "select id, email, phone_number from users where updated_date >= '2024-01-01 00:00:00'"),
+                Arguments.of("findByUserEmail", "select v.* from verification v where v.user_id_id = " + USER_ID),
+                Arguments.of("findRoleEntitiesByName", "select * from role where name = 'USER'"),
+                Arguments.of("rolePermissions", "select * from role_permissions where role_id = " + USER_ID),
+                Arguments.of("findPermissionEntitiesByPermission", "select * from permission where permission = 'GET'"),
+                Arguments.of("findDoctorSpecialtyByName", "select * from doctor_specialty where name = 'Cardiology'"),
+                Arguments.of("markUsed", "select count(*) from revoked_token where token_id = 'jti'"),
+                Arguments.of("deleteExpired", "select id from revoked_token where expires_at < '2024-01-01 00:00:00'"),
+                Arguments.of("findAllByUpdatedDateAfter", "select * from token_epoch where updated_date > '2024-01-01 00:00:00'")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesAnIndex(String name, String sql) throws SQLException {
+        String plan = explain(sql);
+        assertFalse(plan.contains("Seq Scan"), () -> name + " falls back to a sequential scan:\n" + plan);
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("explain " + sql)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+}
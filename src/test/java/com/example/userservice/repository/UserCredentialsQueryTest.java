@@ -0,0 +1,97 @@
+package com.example.userservice.repository;
+
+import com.example.userservice.config.QueryMetricsListener;
+import com.example.userservice.domain.entity.role.PermissionEntity;
+import com.example.userservice.domain.entity.role.RoleEntity;
+import com.example.userservice.domain.entity.user.Gender;
+import com.example.userservice.domain.entity.user.UserEntity;
+import com.example.userservice.domain.entity.user.UserState;
+import com.example.userservice.domain.projection.UserCredentials;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Sign-in must cost one statement however many roles and permissions the user has
+@DataJpaTest(properties = "eureka.client.enabled=false")
+class UserCredentialsQueryTest {
+    private static final SimpleMeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void createUser() {
+        RoleEntity user = entityManager.persist(RoleEntity.builder().name("USER").permissions(List.of()).build());
+        RoleEntity doctor = entityManager.persist(RoleEntity.builder().name("DOCTOR").permissions(List.of()).build());
+        PermissionEntity get = entityManager.persist(PermissionEntity.builder().permission("GET").build());
+        PermissionEntity update = entityManager.persist(PermissionEntity.builder().permission("UPDATE").build());
+        PermissionEntity seePatient = entityManager.persist(PermissionEntity.builder().permission("SEE_A_PATIENT").build());
+        entityManager.persist(UserEntity.builder()
+                .email("doctor@example.com")
+                .fullName("Test Doctor")
+                .password("password")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .phoneNumber("+998901234567")
+                .gender(Gender.FEMALE)
+                .state(UserState.ACTIVE)
+                .roles(List.of(user, doctor))
+                .permissions(List.of(get, update, seePatient))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+        METER_REGISTRY.clear();
+    }
+
+    @Test
+    void findCredentialsByEmailRunsOneStatement() {
+        UserCredentials credentials = UserCredentials.of(userRepository.findCredentialsByEmail("doctor@example.com")).orElseThrow();
+
+        assertEquals(1, statementCount());
+        assertEquals(Set.of("USER", "DOCTOR"), Set.copyOf(credentials.roles()));
+        assertEquals(Set.of("GET", "UPDATE", "SEE_A_PATIENT"), Set.copyOf(credentials.permissions()));
+    }
+
+    private static long statementCount() {
+        long count = 0;
+        for (Timer timer : METER_REGISTRY.find("db.query").timers()) {
+            count += timer.count();
+        }
+        return count;
+    }
+
+    @TestConfiguration
+    static class StatementCounting {
+        // Wraps whichever DataSource the slice provides, the same way DataSourceConfig does when instrumentation is on
+        @Bean
+        static BeanPostProcessor queryMetricsDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .listener(new QueryMetricsListener(METER_REGISTRY, Long.MAX_VALUE))
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
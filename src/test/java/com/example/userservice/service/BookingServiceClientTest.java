@@ -0,0 +1,136 @@
+package com.example.userservice.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A local HttpServer stands in for HYBRID-BOOKING-SERVICE and is switched between healthy, slow and failing
+class BookingServiceClientTest {
+    private static final List<LocalDate> DAYS = List.of(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 5));
+    private static final long READ_TIMEOUT = 200;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Mode mode = Mode.HEALTHY;
+    private SimpleMeterRegistry meterRegistry;
+
+    private enum Mode { HEALTHY, SLOW, FAILING }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/working-days", this::handle);
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void slowResponseTimesOutToNoWorkingDays() {
+        BookingServiceClient client = client(60_000, 20);
+        mode = Mode.SLOW;
+
+        long start = System.nanoTime();
+        List<LocalDate> days = client.getWorkingDays(UUID.randomUUID());
+
+        assertEquals(List.of(), days);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < READ_TIMEOUT * 5);
+        assertEquals(1, meterRegistry.get("booking.requests").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void openBreakerStopsCallingTheBookingService() {
+        BookingServiceClient client = client(60_000, 2);
+        mode = Mode.FAILING;
+        client.getWorkingDays(UUID.randomUUID());
+        client.getWorkingDays(UUID.randomUUID());
+        assertEquals(2, requests.get());
+
+        mode = Mode.HEALTHY;
+        List<LocalDate> days = client.getWorkingDays(UUID.randomUUID());
+
+        assertEquals(List.of(), days);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheLastKnownDays() throws InterruptedException {
+        BookingServiceClient client = client(100, 20);
+        UUID doctorId = UUID.randomUUID();
+        assertEquals(DAYS, client.getWorkingDays(doctorId));
+
+        mode = Mode.FAILING;
+        Thread.sleep(150);
+        // Past fresh-for: the stale days come back at once and a refresh starts in the background
+        assertEquals(DAYS, client.getWorkingDays(doctorId));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (requests.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, requests.get());
+        assertEquals(DAYS, client.getWorkingDays(doctorId));
+    }
+
+    private BookingServiceClient client(long freshFor, int slidingWindowSize) {
+        RestTemplate restTemplate = new RestTemplateBuilder()
+                .setConnectTimeout(Duration.ofMillis(READ_TIMEOUT))
+                .setReadTimeout(Duration.ofMillis(READ_TIMEOUT))
+                .build();
+        ServiceTokenProvider serviceTokenProvider = Mockito.mock(ServiceTokenProvider.class);
+        Mockito.when(serviceTokenProvider.getToken(Mockito.anyString())).thenReturn("service-token");
+        String url = "http://localhost:" + server.getAddress().getPort() + "/working-days";
+        return new BookingServiceClient(restTemplate, serviceTokenProvider, meterRegistry, url,
+                freshFor, 3_600_000, 100, 50, slidingWindowSize, 60_000);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        try {
+            switch (mode) {
+                case SLOW -> {
+                    Thread.sleep(READ_TIMEOUT * 3);
+                    respond(exchange, 200, "[]");
+                }
+                case FAILING -> respond(exchange, 500, "{}");
+                default -> respond(exchange, 200, "[\"2024-03-04\",\"2024-03-05\"]");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        }
+    }
+}
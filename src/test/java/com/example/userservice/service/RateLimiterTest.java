@@ -0,0 +1,43 @@
+package com.example.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private final AtomicLong clock = new AtomicLong(TimeUnit.MINUTES.toNanos(10));
+    private final RateLimiter rateLimiter = new RateLimiter(2, 60, 4, 100, Duration.ofMinutes(10), clock::get);
+
+    @Test
+    void refillsAtSixtyPerMinute() {
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        assertTrue(rateLimiter.tryAcquire("key") > 0);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        assertTrue(rateLimiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    void earlierReadingDoesNotDrainTheBucket() {
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+
+        // A caller that read the clock before the previous one took the lock
+        clock.addAndGet(-TimeUnit.SECONDS.toNanos(3));
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        assertTrue(rateLimiter.tryAcquire("key") > 0);
+
+        // lastRefill stayed at the later reading, so only the time since then is credited
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(4500));
+        assertEquals(0, rateLimiter.tryAcquire("key"));
+        assertTrue(rateLimiter.tryAcquire("key") > 0);
+    }
+}
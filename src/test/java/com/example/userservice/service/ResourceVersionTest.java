@@ -0,0 +1,56 @@
+package com.example.userservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Validated the way UserController.conditional does, through ServletWebRequest.checkNotModified
+class ResourceVersionTest {
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 3, 4, 10, 15, 30);
+    private static final long UPDATED_MILLIS = UPDATED.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @Test
+    void ifModifiedSinceDoesNotHideAnEpochBump() {
+        ResourceVersion bumped = ResourceVersion.of(List.of(UPDATED), 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/get-me");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, UPDATED_MILLIS);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean notModified = new ServletWebRequest(request, response).checkNotModified(bumped.etag(), bumped.lastModified());
+
+        assertFalse(notModified);
+        assertNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(bumped.etag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void ifNoneMatchSeesTheEpochBump() {
+        ResourceVersion before = ResourceVersion.of(List.of(UPDATED), 0);
+        ResourceVersion bumped = ResourceVersion.of(List.of(UPDATED), 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/get-me");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, before.etag());
+
+        assertFalse(new ServletWebRequest(request, new MockHttpServletResponse()).checkNotModified(bumped.etag(), bumped.lastModified()));
+    }
+
+    @Test
+    void rowsOnlyVersionStillAnswersIfModifiedSince() {
+        ResourceVersion version = ResourceVersion.of(List.of(UPDATED));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/get-specialty-by-id");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, UPDATED_MILLIS);
+
+        assertEquals(UPDATED_MILLIS, version.lastModified());
+        assertTrue(new ServletWebRequest(request, new MockHttpServletResponse()).checkNotModified(version.etag(), version.lastModified()));
+    }
+}